@@ -0,0 +1,59 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures Jackson serialization of order graphs, both of the {@link Order}
+ * entity and of the {@link OrderResponseDTO} the endpoints return, with an
+ * object mapper configured like the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    private int orders;
+
+    @Param({ "1", "5", "20" })
+    private int linesPerOrder;
+
+    private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build().writer();
+
+    private List<Order> entities;
+
+    private List<OrderResponseDTO> responses;
+
+    @Setup
+    public void setUp() {
+        entities = OrderFixtures.orders(orders, linesPerOrder, OrderFixtures.products(100));
+        responses = entities.stream().map(OrderResponseDTO::from).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return writer.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(entities.stream().map(OrderResponseDTO::from).collect(Collectors.toList()));
+    }
+}
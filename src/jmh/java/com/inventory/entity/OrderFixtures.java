@@ -0,0 +1,62 @@
+package com.inventory.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds detached order graphs for the benchmarks. A fixed seed keeps the
+ * generated data identical between runs.
+ */
+public final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * @param count number of products
+     * @return products with IDs 1..count and SKUs SKU-1..SKU-count
+     */
+    public static List<Product> products(int count) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            products.add(new Product((long) i, "Product " + i, "SKU-" + i, price, 1_000, 0));
+        }
+        return products;
+    }
+
+    /**
+     * @param count         number of orders
+     * @param linesPerOrder items per order
+     * @param products      products picked at random for each item
+     * @return orders with IDs 1..count
+     */
+    public static List<Order> orders(int count, int linesPerOrder, List<Product> products) {
+        Random random = new Random(42);
+        LocalDateTime date = LocalDateTime.of(2025, 8, 1, 12, 0);
+        List<Order> orders = new ArrayList<>(count);
+        long itemId = 1;
+        for (int i = 1; i <= count; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setOrderDate(date.plusMinutes(i));
+            order.setStatus(OrderStatus.values()[i % OrderStatus.values().length]);
+            List<OrderItem> items = new ArrayList<>(linesPerOrder);
+            for (int j = 0; j < linesPerOrder; j++) {
+                OrderItem item = new OrderItem();
+                item.setId(itemId++);
+                item.setOrder(order);
+                item.setProduct(products.get(random.nextInt(products.size())));
+                item.setQuantity(1 + random.nextInt(10));
+                items.add(item);
+            }
+            order.setItems(items);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,29 @@
+package com.inventory.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OrderStatus#canTransitionTo(OrderStatus)} for every pair of
+ * statuses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStatusBenchmark {
+
+    @Param({ "PENDING", "COMPLETED", "CANCELLED" })
+    private OrderStatus from;
+
+    @Param({ "PENDING", "COMPLETED", "CANCELLED" })
+    private OrderStatus to;
+
+    @Benchmark
+    public boolean canTransitionTo() {
+        return from.canTransitionTo(to);
+    }
+}
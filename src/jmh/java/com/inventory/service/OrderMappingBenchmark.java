@@ -0,0 +1,50 @@
+package com.inventory.service;
+
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderFixtures;
+import com.inventory.entity.OrderItem;
+import com.inventory.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of requested order lines to order items done by
+ * {@link OrderService#createOrder}, without the stock reservation and the
+ * database writes around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int lines;
+
+    private List<OrderItemDTO> requested;
+
+    private Map<Long, Product> products;
+
+    @Setup
+    public void setUp() {
+        products = new HashMap<>();
+        requested = new ArrayList<>(lines);
+        for (Product product : OrderFixtures.products(lines)) {
+            products.put(product.getId(), product);
+            requested.add(new OrderItemDTO(product.getId(), 1 + (int) (product.getId() % 10)));
+        }
+    }
+
+    @Benchmark
+    public List<OrderItem> buildItems() {
+        return OrderService.buildItems(new Order(), requested, products);
+    }
+}
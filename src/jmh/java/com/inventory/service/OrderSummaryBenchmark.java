@@ -0,0 +1,103 @@
+package com.inventory.service;
+
+import com.inventory.InventoryManagementSystemApplication;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderFixtures;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OrderService#summarizeTotalOrderValue(OrderStatus, LocalDateTime, LocalDateTime)},
+ * the grouped query behind filtered {@code GET /api/orders/summary} requests,
+ * against the application's embedded H2 database seeded with orders of
+ * different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSummaryBenchmark {
+
+    private static final int SEED_CHUNK = 1000;
+
+    @Param({ "10", "1000", "10000" })
+    private int orders;
+
+    @Param({ "1", "5", "20" })
+    private int linesPerOrder;
+
+    @Param({ "100" })
+    private int skus;
+
+    /** A status filter, or ANY for every status but CANCELLED. */
+    @Param({ "ANY", "COMPLETED" })
+    private String status;
+
+    private ConfigurableApplicationContext context;
+
+    private OrderService orderService;
+
+    private OrderStatus statusFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:summary-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        statusFilter = "ANY".equals(status) ? null : OrderStatus.valueOf(status);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> summarize() {
+        return orderService.summarizeTotalOrderValue(statusFilter, null, null);
+    }
+
+    /**
+     * Inserts the fixture products and orders with database-assigned IDs, in
+     * transactions of {@value #SEED_CHUNK} orders.
+     */
+    private void seed() {
+        List<Product> products = OrderFixtures.products(skus);
+        products.forEach(product -> {
+            product.setId(null);
+            product.setVersion(null);
+        });
+        List<Product> saved = context.getBean(ProductRepository.class).saveAll(products);
+
+        List<Order> fixtures = OrderFixtures.orders(orders, linesPerOrder, saved);
+        fixtures.forEach(order -> {
+            order.setId(null);
+            order.getItems().forEach(item -> item.setId(null));
+        });
+        OrderRepository orderRepository = context.getBean(OrderRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        for (int from = 0; from < fixtures.size(); from += SEED_CHUNK) {
+            List<Order> chunk = fixtures.subList(from, Math.min(from + SEED_CHUNK, fixtures.size()));
+            transactionTemplate.executeWithoutResult(tx -> orderRepository.saveAll(chunk));
+        }
+    }
+}
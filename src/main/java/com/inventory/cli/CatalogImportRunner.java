@@ -0,0 +1,77 @@
+package com.inventory.cli;
+
+import com.inventory.dto.CatalogImportReportDTO;
+import com.inventory.service.CatalogImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Imports a CSV catalog from the command line and exits:
+ *
+ * <pre>
+ * java -jar inventory.jar --import-catalog=/path/to/catalog.csv
+ * </pre>
+ *
+ * The last committed line is written to {@code <file>.checkpoint} after every
+ * chunk; running the same command again after an interruption resumes from
+ * it. The checkpoint is deleted once the whole file has been imported.
+ */
+@Slf4j
+@Component
+public class CatalogImportRunner implements ApplicationRunner {
+
+    static final String OPTION = "import-catalog";
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> files = args.getOptionValues(OPTION);
+        if (files == null || files.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(files.get(0));
+        Path checkpoint = Paths.get(file + ".checkpoint");
+        long resumeAfterLine = Files.exists(checkpoint)
+                ? Long.parseLong(new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim())
+                : 0;
+
+        CatalogImportReportDTO report;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            report = catalogImportService.importCsv(channel, resumeAfterLine, line -> writeCheckpoint(checkpoint,
+                    line));
+        }
+        Files.deleteIfExists(checkpoint);
+        report.getRejections().forEach(row -> log.warn("Rejected line {} (SKU {}): {}", row.getLine(), row.getSku(),
+                row.getReason()));
+        log.info("Imported {} products from {}, {} rows rejected", report.getImported(), file, report.getRejected());
+        System.exit(SpringApplication.exit(context, () -> report.getRejected() == 0 ? 0 : 2));
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long line) {
+        try {
+            Files.write(checkpoint, Long.toString(line).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Infrastructure of the reactive API, active with the {@code reactive}
+ * profile.
+ *
+ * Requests are served by Netty's event loop. Reads go through R2DBC; calls
+ * into the blocking JPA services are moved to a bounded scheduler, so a slow
+ * database never stalls the event loop and the number of threads stays fixed.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveConfig {
+
+    /**
+     * Prefers Netty over the servlet container that is also on the classpath.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Scheduler for blocking JPA calls; excess calls wait in its queue instead
+     * of adding threads.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(@Value("${inventory.reactive.blocking-threads:10}") int threads,
+            @Value("${inventory.reactive.blocking-queue-size:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "jpa");
+    }
+}
@@ -0,0 +1,12 @@
+package com.inventory.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs declared with {@code @Scheduled}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
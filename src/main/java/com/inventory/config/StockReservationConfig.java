@@ -0,0 +1,42 @@
+package com.inventory.config;
+
+import com.inventory.service.stock.AtomicStockReservationStrategy;
+import com.inventory.service.stock.OptimisticStockReservationStrategy;
+import com.inventory.service.stock.PessimisticStockReservationStrategy;
+import com.inventory.service.stock.StockReservationMode;
+import com.inventory.service.stock.StockReservationStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Selects the stock reservation strategy used by order creation.
+ *
+ * The mode is configured with {@code inventory.stock.reservation-strategy}
+ * (OPTIMISTIC, PESSIMISTIC or ATOMIC). All strategies stay registered as beans
+ * so they can be compared side by side.
+ */
+@Slf4j
+@Configuration
+public class StockReservationConfig {
+
+    @Bean
+    @Primary
+    public StockReservationStrategy stockReservationStrategy(
+            @Value("${inventory.stock.reservation-strategy:OPTIMISTIC}") StockReservationMode mode,
+            OptimisticStockReservationStrategy optimistic,
+            PessimisticStockReservationStrategy pessimistic,
+            AtomicStockReservationStrategy atomic) {
+        log.info("Using {} stock reservation strategy", mode);
+        switch (mode) {
+            case PESSIMISTIC:
+                return pessimistic;
+            case ATOMIC:
+                return atomic;
+            default:
+                return optimistic;
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package com.inventory.controller;
 
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.BulkStatusUpdateDTO;
+import com.inventory.dto.BulkStatusUpdateResultDTO;
+import com.inventory.dto.CursorPage;
 import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderQueueStatsDTO;
+import com.inventory.dto.OrderResponseDTO;
+import com.inventory.dto.OrderSubmissionDTO;
 import com.inventory.entity.Order;
 import com.inventory.entity.OrderStatus;
+import com.inventory.service.ExportService;
+import com.inventory.service.OrderAcceptanceService;
+import com.inventory.service.OrderBatchService;
+import com.inventory.service.OrderIdempotencyService;
+import com.inventory.service.OrderIdempotencyService.IdempotentOrder;
 import com.inventory.service.OrderService;
+import com.inventory.service.OrderStatusBatchService;
+import com.inventory.service.SalesSummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 /**
@@ -24,6 +46,7 @@ import javax.validation.Valid;
 @Validated
 @RestController
 @RequestMapping("/api/orders")
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class OrderController {
@@ -31,31 +54,146 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @Autowired
+    private OrderAcceptanceService orderAcceptanceService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Value("${inventory.export.timeout-millis:1800000}")
+    private long exportTimeoutMillis;
+
     /**
      * Creates a new order and returns the saved order.
      *
-     * @param orderDTO The DTO containing order details
-     * @return ResponseEntity with the created Order
+     * With an Idempotency-Key header, a retry with the same key returns the
+     * order created by the first request instead of creating another one.
+     *
+     * @param orderDTO       The DTO containing order details
+     * @param idempotencyKey optional key identifying the order across retries
+     * @return ResponseEntity with the created order
      */
     @PostMapping
-    public ResponseEntity<Order> createOrder(@Valid @RequestBody OrderDTO orderDTO) {
+    public ResponseEntity<OrderResponseDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+            @RequestHeader(value = OrderIdempotencyService.KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Fetching request to create order...");
+        if (idempotencyKey != null) {
+            IdempotentOrder order = orderIdempotencyService.createOrder(idempotencyKey, orderDTO);
+            log.info("Order {} with ID: {}", order.isReplayed() ? "replayed" : "created successfully",
+                    order.getResponse().getId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(OrderIdempotencyService.REPLAYED_HEADER, String.valueOf(order.isReplayed()))
+                    .body(order.getResponse());
+        }
         Order createdOrder = orderService.createOrder(orderDTO);
         log.info("Order created successfully with ID: {}", createdOrder.getId());
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        return new ResponseEntity<>(OrderResponseDTO.from(createdOrder), HttpStatus.CREATED);
+    }
+
+    /**
+     * Queues an order for asynchronous creation and returns immediately.
+     * Poll the URL in the Location header for the outcome.
+     *
+     * @param orderDTO The DTO containing order details
+     * @return ResponseEntity with the queued submission and status 202, or
+     *         429 if the queue is full
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderSubmissionDTO> submitOrder(@Valid @RequestBody OrderDTO orderDTO) {
+        OrderSubmissionDTO submission = orderAcceptanceService.submit(orderDTO);
+        log.info("Order queued with tracking ID: {}", submission.getTrackingId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/async/" + submission.getTrackingId()))
+                .body(submission);
+    }
+
+    /**
+     * Reports the depth, processing lag and counters of the asynchronous
+     * order queue.
+     *
+     * @return Order queue statistics
+     */
+    @GetMapping("/async/stats")
+    public OrderQueueStatsDTO queueStats() {
+        return orderAcceptanceService.getStats();
     }
 
     /**
-     * Retrieves a list of all orders in the system.
+     * Retrieves the state of an asynchronously submitted order.
      *
-     * @return List of all Order entities
+     * @param trackingId The tracking ID returned on submission
+     * @return The submission, with the order ID once created or the error
+     *         once failed
+     */
+    @GetMapping("/async/{trackingId}")
+    public OrderSubmissionDTO getSubmission(@PathVariable String trackingId) {
+        return orderAcceptanceService.getSubmission(trackingId);
+    }
+
+    /**
+     * Creates many orders in one call, e.g. for marketplace bursts.
+     * Each order succeeds or fails on its own; the response reports the
+     * outcome of every submitted order in submission order.
+     *
+     * @param orderDTOs The orders to create
+     * @return One result per submitted order
+     */
+    @PostMapping("/batch")
+    public List<BatchOrderResultDTO> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+        log.info("Received request to create a batch of {} orders", orderDTOs.size());
+        List<BatchOrderResultDTO> results = orderBatchService.createOrders(orderDTOs);
+        log.info("Batch of {} orders processed", results.size());
+        return results;
+    }
+
+    /**
+     * Retrieves one page of orders using keyset pagination.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
+     *
+     * @param after Cursor returned with the previous page; omit for the first
+     *              page
+     * @param limit Maximum number of orders to return
+     * @return List of orders with their items and products
      */
     @GetMapping
-    public List<Order> list() {
-        log.info("Fetching all orders...");
-        List<Order> orders = orderService.getAllOrders();
-        log.info("Total orders fetched: {}", orders.size());
-        return orders;
+    public ResponseEntity<List<OrderResponseDTO>> list(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Fetching orders after cursor: {}", after);
+        CursorPage<OrderResponseDTO> page = orderService.getOrdersPage(after, limit);
+        log.info("Total orders fetched: {}", page.getItems().size());
+        return page.toResponse();
+    }
+
+    /**
+     * Exports all orders with their items as newline-delimited JSON, streamed
+     * from a database cursor as rows are read. The export may run for up to
+     * {@code inventory.export.timeout-millis}.
+     *
+     * @param response The response the orders are written to
+     * @return Task writing one order per line
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(HttpServletResponse response) {
+        log.info("Received request to export all orders");
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            response.setContentType(ProductController.NDJSON.toString());
+            exportService.exportOrders(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
     /**
@@ -63,26 +201,64 @@ public class OrderController {
      *
      * @param id     ID of the order to update
      * @param status New status to apply
-     * @return Updated Order object
+     * @return Updated order
      */
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
+    public ResponseEntity<OrderResponseDTO> updateStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
         log.info("Received request to update order ID: {} with new status: {}", id, status);
         Order updatedOrder = orderService.updateStatus(id, status);
         log.info("Order ID: {} updated successfully to status: {}", updatedOrder.getId(), updatedOrder.getStatus());
-        return ResponseEntity.ok(updatedOrder);
+        return ResponseEntity.ok(OrderResponseDTO.from(updatedOrder));
+    }
+
+    /**
+     * Moves many orders to one status, one conditional UPDATE per chunk of
+     * orders. Orders that don't exist or may not make the transition are
+     * reported and left unchanged.
+     *
+     * @param update IDs of the orders to move and the new status
+     * @return Number of moved orders and the rejected orders
+     */
+    @PutMapping("/status")
+    public BulkStatusUpdateResultDTO updateStatuses(@Valid @RequestBody BulkStatusUpdateDTO update) {
+        log.info("Received request to move {} orders to status: {}", update.getOrderIds().size(), update.getStatus());
+        return orderStatusBatchService.updateStatuses(update.getOrderIds(), update.getStatus());
     }
 
     /**
-     * Summarizes the total order value per product.
+     * Summarizes the total order value per product. Without filters the
+     * totals of non-cancelled orders are read from the maintained sales
+     * summary table; with filters they are aggregated from the order items.
      *
+     * @param status Only count orders in this status; omit for all but
+     *               cancelled orders
+     * @param from   Only count orders placed at or after this ISO date-time
+     * @param to     Only count orders placed before this ISO date-time
      * @return Map of product SKU to total order value
      */
     @GetMapping("/summary")
-    public Map<String, BigDecimal> getProductOrderSummary() {
+    public Map<String, BigDecimal> getProductOrderSummary(@RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         log.info("Received request to summarize total order value per product");
-        Map<String, BigDecimal> summary = orderService.summarizeTotalOrderValue(orderService.getAllOrders());
+        Map<String, BigDecimal> summary = status == null && from == null && to == null
+                ? salesSummaryService.getSummary()
+                : orderService.summarizeTotalOrderValue(status, from, to);
         log.info("Returning order summary for {} products", summary.size());
         return summary;
     }
+
+    /**
+     * Recomputes the sales summary table from the orders and corrects any
+     * drift.
+     *
+     * @return Map of product SKU to the correction applied, for drifted SKUs
+     */
+    @PostMapping("/summary/rebuild")
+    public Map<String, BigDecimal> rebuildSummary() {
+        log.info("Received request to rebuild the sales summary");
+        Map<String, BigDecimal> drift = salesSummaryService.rebuild();
+        log.info("Sales summary rebuilt, {} SKUs corrected", drift.size());
+        return drift;
+    }
 }
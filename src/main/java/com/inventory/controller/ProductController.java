@@ -1,17 +1,35 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CatalogImportReportDTO;
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductCacheStatsDTO;
 import com.inventory.dto.ProductDTO;
+import com.inventory.dto.SkuFilterStatsDTO;
 import com.inventory.entity.Product;
+import com.inventory.service.CatalogImportService;
+import com.inventory.service.ExportService;
 import com.inventory.service.ProductService;
+import com.inventory.service.stock.LowStockAlertService;
+import com.inventory.service.stock.ShardedStockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.List;
 
 /**
@@ -20,13 +38,31 @@ import java.util.List;
 @Validated
 @RestController
 @RequestMapping("/api/products")
+@ConditionalOnWebApplication(type = Type.SERVLET)
 @RequiredArgsConstructor
 @Slf4j
 public class ProductController {
 
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @Value("${inventory.export.timeout-millis:1800000}")
+    private long exportTimeoutMillis;
+
     /**
      * Creates a new product in the inventory.
      *
@@ -42,30 +78,151 @@ public class ProductController {
     }
 
     /**
-     * Retrieves the list of all available products.
+     * Imports products from a CSV body with the columns name,sku,price,stock.
+     * Rows are committed in chunks; invalid rows and duplicate SKUs are
+     * rejected and reported without failing the import.
+     *
+     * @param resumeAfterLine Skip the lines up to and including this one, as
+     *                        reported by an interrupted import
+     * @param request         The request whose body is the CSV file
+     * @return Counts of imported and rejected rows and the rejected rows
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+    public CatalogImportReportDTO importCatalog(@RequestParam(defaultValue = "0") long resumeAfterLine,
+            HttpServletRequest request) throws IOException {
+        log.info("Received request to import catalog after line {}", resumeAfterLine);
+        return catalogImportService.importCsv(Channels.newChannel(request.getInputStream()), resumeAfterLine,
+                line -> log.debug("Catalog import committed up to line {}", line));
+    }
+
+    /**
+     * Retrieves a product by ID, served from the product cache when possible.
+     *
+     * @param id The product ID
+     * @return The product
+     */
+    @GetMapping("/{id}")
+    public Product get(@PathVariable Long id) {
+        log.info("Received request to get product ID: {}", id);
+        return productService.getProduct(id);
+    }
+
+    /**
+     * Reports the hit, miss, load and eviction counters of the product cache.
      *
+     * @return Product cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ProductCacheStatsDTO cacheStats() {
+        return productService.getCacheStats();
+    }
+
+    /**
+     * Reports the sizing, memory use and counters of the SKU Bloom filter.
+     *
+     * @return SKU filter statistics
+     */
+    @GetMapping("/sku-filter/stats")
+    public SkuFilterStatsDTO skuFilterStats() {
+        return productService.getSkuFilterStats();
+    }
+
+    /**
+     * Retrieves one page of products using keyset pagination.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
+     *
+     * @param after Cursor returned with the previous page; omit for the first
+     *              page
+     * @param limit Maximum number of products to return
      * @return List of products
      */
     @GetMapping
-    public List<Product> list() {
-        log.info("Received request to list all products");
-        List<Product> productList = productService.listAll();
-        log.info("Returning {} products", productList.size());
-        return productList;
+    public ResponseEntity<List<Product>> list(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Received request to list products after cursor: {}", after);
+        CursorPage<Product> page = productService.listPage(after, limit);
+        log.info("Returning {} products", page.getItems().size());
+        return page.toResponse();
     }
 
     /**
-     * Retrieves products with stock below the specified threshold.
+     * Exports all products as newline-delimited JSON, streamed from a database
+     * cursor as rows are read. The export may run for up to
+     * {@code inventory.export.timeout-millis}, longer than other asynchronous
+     * requests.
+     *
+     * @param response The response the products are written to
+     * @return Task writing one product per line
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(HttpServletResponse response) {
+        log.info("Received request to export all products");
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            response.setContentType(NDJSON.toString());
+            exportService.exportProducts(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves one page of products with stock below the specified threshold.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
      *
      * @param threshold The stock threshold value
+     * @param after     Cursor returned with the previous page; omit for the
+     *                  first page
+     * @param limit     Maximum number of products to return
      * @return List of low-stock products
      */
     @GetMapping("/low-stock")
-    public List<Product> getLowStock(@RequestParam int threshold) {
+    public ResponseEntity<List<Product>> getLowStock(@RequestParam int threshold,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
         log.info("Received request to get products with stock below threshold: {}", threshold);
-        List<Product> lowStockProducts = productService.getLowStockProducts(threshold);
-        log.info("Found {} products below stock threshold of {}", lowStockProducts.size(), threshold);
-        return lowStockProducts;
+        CursorPage<Product> page = productService.getLowStockProducts(threshold, after, limit);
+        log.info("Found {} products below stock threshold of {}", page.getItems().size(), threshold);
+        return page.toResponse();
+    }
+
+    /**
+     * Subscribes to low-stock alerts. A "low-stock" Server-Sent Event is pushed
+     * whenever a product's stock drops below the threshold or rises back to
+     * it.
+     *
+     * @param threshold The stock threshold value
+     * @return Event stream of low-stock alerts
+     */
+    @GetMapping(path = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStock(@RequestParam int threshold) {
+        log.info("Received request to stream low-stock alerts for threshold: {}", threshold);
+        return lowStockAlertService.subscribe(threshold);
+    }
+
+    /**
+     * Switches a product to hot SKU mode, splitting its stock into shards.
+     *
+     * @param id    The product ID
+     * @param count The number of stock shards
+     * @return The updated product
+     */
+    @PostMapping("/{id}/stock-shards")
+    public Product enableStockShards(@PathVariable Long id, @RequestParam int count) {
+        log.info("Received request to shard stock of product ID: {} into {} shards", id, count);
+        return shardedStockService.enableSharding(id, count);
+    }
+
+    /**
+     * Switches a product back to a single stock counter.
+     *
+     * @param id The product ID
+     * @return The updated product
+     */
+    @DeleteMapping("/{id}/stock-shards")
+    public Product disableStockShards(@PathVariable Long id) {
+        log.info("Received request to merge stock shards of product ID: {}", id);
+        return shardedStockService.disableSharding(id);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,264 @@
+package com.inventory.controller;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.BulkStatusUpdateDTO;
+import com.inventory.dto.BulkStatusUpdateResultDTO;
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderQueueStatsDTO;
+import com.inventory.dto.OrderResponseDTO;
+import com.inventory.dto.OrderSubmissionDTO;
+import com.inventory.entity.OrderStatus;
+import com.inventory.repository.ReactiveOrderRepository;
+import com.inventory.service.OrderAcceptanceService;
+import com.inventory.service.OrderBatchService;
+import com.inventory.service.OrderIdempotencyService;
+import com.inventory.service.OrderService;
+import com.inventory.service.OrderStatusBatchService;
+import com.inventory.service.SalesSummaryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Valid;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive variant of {@link OrderController}, served by WebFlux with the
+ * {@code reactive} profile.
+ *
+ * Order pages and the export are read through R2DBC; the export groups the
+ * streamed rows into orders one order at a time and is the only endpoint that
+ * streams a {@link Flux}, pages are collected into one response. Order
+ * creation, batches, status changes and summary rebuilds run the JPA services
+ * on the bounded JPA scheduler, so they follow exactly the same validation and
+ * {@link OrderStatus} transition rules.
+ */
+@Validated
+@RestController
+@RequestMapping("/api/orders")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Slf4j
+public class ReactiveOrderController {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderAcceptanceService orderAcceptanceService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private ReactiveOrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("jpaScheduler")
+    private Scheduler jpaScheduler;
+
+    @Value("${inventory.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${inventory.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
+    /**
+     * Creates a new order and returns the saved order.
+     *
+     * With an Idempotency-Key header, a retry with the same key returns the
+     * order created by the first request instead of creating another one.
+     *
+     * @param orderDTO       The DTO containing order details
+     * @param idempotencyKey optional key identifying the order across retries
+     * @return ResponseEntity with the created order
+     */
+    @PostMapping
+    public Mono<ResponseEntity<OrderResponseDTO>> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+            @RequestHeader(value = OrderIdempotencyService.KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return Mono.fromCallable(() -> orderIdempotencyService.createOrder(idempotencyKey, orderDTO))
+                    .subscribeOn(jpaScheduler)
+                    .map(order -> ResponseEntity.status(HttpStatus.CREATED)
+                            .header(OrderIdempotencyService.REPLAYED_HEADER, String.valueOf(order.isReplayed()))
+                            .body(order.getResponse()));
+        }
+        return Mono.fromCallable(() -> transactionTemplate.execute(
+                status -> OrderResponseDTO.from(orderService.createOrder(orderDTO))))
+                .subscribeOn(jpaScheduler)
+                .map(order -> new ResponseEntity<>(order, HttpStatus.CREATED));
+    }
+
+    /**
+     * Queues an order for asynchronous creation and returns immediately.
+     *
+     * @param orderDTO The DTO containing order details
+     * @return ResponseEntity with the queued submission and status 202, or
+     *         429 if the queue is full
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderSubmissionDTO> submitOrder(@Valid @RequestBody OrderDTO orderDTO) {
+        OrderSubmissionDTO submission = orderAcceptanceService.submit(orderDTO);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/async/" + submission.getTrackingId()))
+                .body(submission);
+    }
+
+    @GetMapping("/async/stats")
+    public OrderQueueStatsDTO queueStats() {
+        return orderAcceptanceService.getStats();
+    }
+
+    @GetMapping("/async/{trackingId}")
+    public OrderSubmissionDTO getSubmission(@PathVariable String trackingId) {
+        return orderAcceptanceService.getSubmission(trackingId);
+    }
+
+    /**
+     * Creates many orders in one call, e.g. for marketplace bursts.
+     * Each order succeeds or fails on its own; the response reports the
+     * outcome of every submitted order in submission order.
+     *
+     * @param orderDTOs The orders to create
+     * @return One result per submitted order
+     */
+    @PostMapping("/batch")
+    public Mono<List<BatchOrderResultDTO>> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+        log.info("Received request to create a batch of {} orders", orderDTOs.size());
+        return Mono.fromCallable(() -> orderBatchService.createOrders(orderDTOs))
+                .subscribeOn(jpaScheduler)
+                .doOnNext(results -> log.info("Batch of {} orders processed", results.size()));
+    }
+
+    /**
+     * Retrieves one page of orders using keyset pagination.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
+     *
+     * @param after Cursor returned with the previous page; omit for the first
+     *              page
+     * @param limit Maximum number of orders to return
+     * @return List of orders with their items and products
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<OrderResponseDTO>>> list(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        return orderRepository.findIdsGreaterThan(afterId, pageSize + 1).collectList().flatMap(ids -> {
+            String nextCursor = null;
+            if (ids.size() > pageSize) {
+                ids = ids.subList(0, pageSize);
+                nextCursor = CursorPage.encode(ids.get(pageSize - 1));
+            }
+            String cursor = nextCursor;
+            Mono<List<OrderResponseDTO>> orders = ids.isEmpty() ? Mono.just(Collections.emptyList())
+                    : orderRepository.findLinesByOrderIds(ids).collectList().map(OrderResponseDTO::fromLines);
+            return orders.map(items -> new CursorPage<>(items, cursor).toResponse());
+        });
+    }
+
+    /**
+     * Exports all orders with their items as newline-delimited JSON, fetched
+     * from the database as the client reads them.
+     *
+     * @return Stream of orders, one per line
+     */
+    @GetMapping(path = "/export", produces = "application/x-ndjson")
+    public Flux<OrderResponseDTO> export() {
+        log.info("Received request to export all orders");
+        return orderRepository.streamAllLines()
+                .bufferUntilChanged(line -> line.getOrderId())
+                .map(lines -> OrderResponseDTO.fromLines(lines).get(0));
+    }
+
+    /**
+     * Updates the status of an existing order.
+     *
+     * @param id     ID of the order to update
+     * @param status New status to apply
+     * @return Updated order
+     */
+    @PutMapping("/{id}/status")
+    public Mono<OrderResponseDTO> updateStatus(@PathVariable Long id, @RequestParam OrderStatus status) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(
+                tx -> OrderResponseDTO.from(orderService.updateStatus(id, status))))
+                .subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * Moves many orders to one status, one conditional UPDATE per chunk of
+     * orders.
+     *
+     * @param update IDs of the orders to move and the new status
+     * @return Number of moved orders and the rejected orders
+     */
+    @PutMapping("/status")
+    public Mono<BulkStatusUpdateResultDTO> updateStatuses(@Valid @RequestBody BulkStatusUpdateDTO update) {
+        return Mono.fromCallable(() -> orderStatusBatchService.updateStatuses(update.getOrderIds(), update.getStatus()))
+                .subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * Summarizes the total order value per product. Without filters the
+     * totals are read from the maintained sales summary table.
+     *
+     * @param status Only count orders in this status; omit for all but
+     *               cancelled orders
+     * @param from   Only count orders placed at or after this ISO date-time
+     * @param to     Only count orders placed before this ISO date-time
+     * @return Map of product SKU to total order value
+     */
+    @GetMapping("/summary")
+    public Mono<Map<String, BigDecimal>> getProductOrderSummary(@RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return Mono.fromCallable(() -> status == null && from == null && to == null
+                ? salesSummaryService.getSummary()
+                : orderService.summarizeTotalOrderValue(status, from, to))
+                .subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * Recomputes the sales summary table from the orders and corrects any
+     * drift.
+     *
+     * @return Map of product SKU to the correction applied, for drifted SKUs
+     */
+    @PostMapping("/summary/rebuild")
+    public Mono<Map<String, BigDecimal>> rebuildSummary() {
+        log.info("Received request to rebuild the sales summary");
+        return Mono.fromCallable(salesSummaryService::rebuild)
+                .subscribeOn(jpaScheduler)
+                .doOnNext(drift -> log.info("Sales summary rebuilt, {} SKUs corrected", drift.size()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.controller;
+
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ReactiveProductRepository;
+import com.inventory.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Reactive variant of {@link ProductController}, served by WebFlux with the
+ * {@code reactive} profile.
+ *
+ * Lists are read through R2DBC and the export is streamed with backpressure:
+ * rows are fetched as fast as the client consumes them. Writes and cached
+ * lookups run the JPA services on the bounded JPA scheduler.
+ */
+@Validated
+@RestController
+@RequestMapping("/api/products")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Slf4j
+public class ReactiveProductController {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    @Qualifier("jpaScheduler")
+    private Scheduler jpaScheduler;
+
+    @Value("${inventory.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${inventory.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
+    /**
+     * Creates a new product in the inventory.
+     *
+     * @param productDTO The product data transfer object containing product
+     *                   details
+     * @return The created product
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Product>> createProduct(@Valid @RequestBody ProductDTO productDTO) {
+        log.info("Received request to create new product with SKU: {}", productDTO.getSku());
+        return Mono.fromCallable(() -> productService.createProduct(productDTO))
+                .subscribeOn(jpaScheduler)
+                .map(product -> new ResponseEntity<>(product, HttpStatus.CREATED));
+    }
+
+    /**
+     * Retrieves a product by ID, served from the product cache when possible.
+     *
+     * @param id The product ID
+     * @return The product
+     */
+    @GetMapping("/{id}")
+    public Mono<Product> get(@PathVariable Long id) {
+        return Mono.fromCallable(() -> productService.getProduct(id)).subscribeOn(jpaScheduler);
+    }
+
+    /**
+     * Retrieves one page of products using keyset pagination.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
+     *
+     * @param after Cursor returned with the previous page; omit for the first
+     *              page
+     * @param limit Maximum number of products to return
+     * @return List of products
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<Product>>> list(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        return productRepository.findPage(afterId, pageSize + 1).collectList()
+                .map(products -> page(products, pageSize).toResponse());
+    }
+
+    /**
+     * Exports all products as newline-delimited JSON, fetched from the
+     * database as the client reads them.
+     *
+     * @return Stream of products, one per line
+     */
+    @GetMapping(path = "/export", produces = "application/x-ndjson")
+    public Flux<Product> export() {
+        log.info("Received request to export all products");
+        return productRepository.streamAll();
+    }
+
+    /**
+     * Retrieves one page of products with stock below the specified threshold.
+     * The cursor of the next page is returned in the X-Next-Cursor header and
+     * is absent on the last page.
+     *
+     * @param threshold The stock threshold value
+     * @param after     Cursor returned with the previous page; omit for the
+     *                  first page
+     * @param limit     Maximum number of products to return
+     * @return List of low-stock products
+     */
+    @GetMapping("/low-stock")
+    public Mono<ResponseEntity<List<Product>>> getLowStock(@RequestParam int threshold,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        return productRepository.findLowStock(threshold, afterId, pageSize + 1).collectList()
+                .map(products -> page(products, pageSize).toResponse());
+    }
+
+    private static CursorPage<Product> page(List<Product> products, int pageSize) {
+        if (products.size() <= pageSize) {
+            return new CursorPage<>(products, null);
+        }
+        List<Product> items = products.subList(0, pageSize);
+        return new CursorPage<>(items, CursorPage.encode(items.get(pageSize - 1).getId()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of one order submitted
+ * through the bulk ingestion endpoint.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResultDTO {
+
+    /**
+     * Outcome of a single order in a batch.
+     */
+    public enum Outcome {
+        CREATED, FAILED
+    }
+
+    /**
+     * Position of the order in the submitted array, starting at 0.
+     */
+    private int index;
+
+    /**
+     * Whether the order was created.
+     */
+    private Outcome outcome;
+
+    /**
+     * ID of the created order; null if the order failed.
+     */
+    private Long orderId;
+
+    /**
+     * Reason the order failed; null if it was created.
+     */
+    private String error;
+
+    public static BatchOrderResultDTO created(int index, Long orderId) {
+        return new BatchOrderResultDTO(index, Outcome.CREATED, orderId, null);
+    }
+
+    public static BatchOrderResultDTO failed(int index, String error) {
+        return new BatchOrderResultDTO(index, Outcome.FAILED, null, error);
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventory.dto;
+
+import com.inventory.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) moving many orders to one status at once.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusUpdateDTO {
+
+    @NotEmpty(message = "Order IDs cannot be empty")
+    private List<@NotNull(message = "Order ID cannot be null") Long> orderIds;
+
+    @NotNull(message = "Order status cannot be null")
+    private OrderStatus status;
+}
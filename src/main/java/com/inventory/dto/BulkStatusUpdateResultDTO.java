@@ -0,0 +1,59 @@
+package com.inventory.dto;
+
+import com.inventory.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of a bulk status update.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkStatusUpdateResultDTO {
+
+    /**
+     * Why an order was not moved.
+     */
+    public enum Reason {
+        NOT_FOUND, INVALID_TRANSITION
+    }
+
+    /**
+     * An order that was not moved.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedOrder {
+
+        private Long orderId;
+
+        /**
+         * Status the order is in; null if it doesn't exist.
+         */
+        private OrderStatus currentStatus;
+
+        private Reason reason;
+    }
+
+    /**
+     * The status the orders were moved to.
+     */
+    private OrderStatus status;
+
+    /**
+     * Distinct order IDs submitted.
+     */
+    private int requested;
+
+    private int updated;
+
+    private List<RejectedOrder> rejected = new ArrayList<>();
+}
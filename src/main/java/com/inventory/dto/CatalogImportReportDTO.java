@@ -0,0 +1,60 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) reporting the outcome of a bulk catalog import.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CatalogImportReportDTO {
+
+    /**
+     * A CSV row that was not imported.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+
+        /**
+         * Line number in the file, starting at 1.
+         */
+        private long line;
+
+        /**
+         * SKU of the row, if it could be read.
+         */
+        private String sku;
+
+        private String reason;
+    }
+
+    /**
+     * Data rows read, excluding the header and skipped lines.
+     */
+    private long rowsRead;
+
+    private long imported;
+
+    private long rejected;
+
+    /**
+     * Line number up to which the file has been committed; pass it as
+     * {@code resumeAfterLine} to continue an interrupted import.
+     */
+    private long lastCommittedLine;
+
+    /**
+     * The first rejected rows, up to the configured reporting limit.
+     */
+    private List<RejectedRow> rejections = new ArrayList<>();
+}
@@ -0,0 +1,103 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * The next cursor is an opaque token wrapping the primary key of the last
+ * item; clients pass it back as the {@code after} parameter to get the
+ * following page. It is null on the last page. Controllers return the items
+ * as the body and the cursor in the {@value #NEXT_CURSOR_HEADER} header.
+ *
+ * @param <T> the type of the listed items
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** Response header carrying the cursor of the next page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String PREFIX = "id:";
+
+    /**
+     * Items of this page, in ascending primary key order.
+     */
+    private final List<T> items;
+
+    /**
+     * Cursor of the next page; null if this is the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * @return a 200 response with the items as body and the next cursor, if
+     *         any, in the {@value #NEXT_CURSOR_HEADER} header
+     */
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+
+    /**
+     * Encodes a primary key as an opaque cursor.
+     *
+     * @param id the primary key of the last item of a page
+     * @return the cursor
+     */
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(Long)}.
+     *
+     * @param cursor the cursor, or null for the first page
+     * @return the primary key to continue after; 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Resolves the page size requested by a client.
+     *
+     * @param requested    the requested page size, or null for the default
+     * @param defaultLimit the page size used when none is requested
+     * @param maxLimit     the largest page size served
+     * @return the page size to use
+     * @throws IllegalArgumentException if the requested size is below 1
+     */
+    public static int resolveLimit(Integer requested, int defaultLimit, int maxLimit) {
+        if (requested == null) {
+            return Math.min(defaultLimit, maxLimit);
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(requested, maxLimit);
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) pushed to low-stock subscribers when a product's
+ * stock crosses their threshold.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDTO {
+
+    /**
+     * Direction in which the stock crossed the threshold.
+     */
+    public enum Direction {
+        BELOW, ABOVE
+    }
+
+    private Long productId;
+
+    private String sku;
+
+    /**
+     * Available stock after the change.
+     */
+    private Integer stock;
+
+    /**
+     * Threshold of the subscription receiving the alert.
+     */
+    private Integer threshold;
+
+    private Direction direction;
+}
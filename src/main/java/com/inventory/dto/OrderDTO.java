@@ -1,5 +1,6 @@
 package com.inventory.dto;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -23,10 +24,10 @@ public class OrderDTO {
      * 
      * <p>
      * This field must not be null and should contain at least one valid
-     * {@link OrderItemDTO}.
+     * {@link OrderItemDTO}. Each item is validated as well.
      * </p>
      */
     @NotNull(message = "Order items cannot be null")
-    private List<OrderItemDTO> items;
+    private List<@NotNull(message = "Order item cannot be null") @Valid OrderItemDTO> items;
 
 }
@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import com.inventory.entity.OrderItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) describing one item of an order in order
+ * responses.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemResponseDTO {
+
+    private Long id;
+
+    private ProductSummaryDTO product;
+
+    private Integer quantity;
+
+    public static OrderItemResponseDTO from(OrderItem item) {
+        return new OrderItemResponseDTO(item.getId(), ProductSummaryDTO.from(item.getProduct()), item.getQuantity());
+    }
+}
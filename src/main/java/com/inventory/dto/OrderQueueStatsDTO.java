@@ -0,0 +1,46 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) reporting the depth, lag and counters of the
+ * asynchronous order queue.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderQueueStatsDTO {
+
+    /**
+     * Orders waiting for a worker.
+     */
+    private int depth;
+
+    private int capacity;
+
+    /**
+     * Time the oldest queued order has been waiting, in milliseconds.
+     */
+    private long oldestWaitMillis;
+
+    /**
+     * Time the most recently processed order waited in the queue, in
+     * milliseconds.
+     */
+    private long lastLagMillis;
+
+    private long accepted;
+
+    /**
+     * Submissions turned away with 429 because the queue was full.
+     */
+    private long rejected;
+
+    private long created;
+
+    private long failed;
+}
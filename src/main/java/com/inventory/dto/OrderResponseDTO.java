@@ -0,0 +1,108 @@
+package com.inventory.dto;
+
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+import com.inventory.repository.OrderLineView;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Data Transfer Object (DTO) returned by the order endpoints.
+ *
+ * Unlike the {@link Order} entity it holds no lazy associations, so
+ * serializing it never issues further queries.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponseDTO {
+
+    private Long id;
+
+    private LocalDateTime orderDate;
+
+    private OrderStatus status;
+
+    private List<OrderItemResponseDTO> items = new ArrayList<>();
+
+    /**
+     * Copies an order whose items and products are already loaded.
+     *
+     * @param order the order
+     * @return the response DTO
+     */
+    public static OrderResponseDTO from(Order order) {
+        return new OrderResponseDTO(order.getId(), order.getOrderDate(), order.getStatus(),
+                order.getItems().stream().map(OrderItemResponseDTO::from).collect(Collectors.toList()));
+    }
+
+    /**
+     * Groups order line rows into orders.
+     *
+     * @param rows rows sorted by order ID
+     * @return one DTO per order, in row order
+     */
+    public static List<OrderResponseDTO> fromLines(List<? extends OrderLineView> rows) {
+        Map<Long, OrderResponseDTO> orders = new LinkedHashMap<>();
+        for (OrderLineView row : rows) {
+            orders.computeIfAbsent(row.getOrderId(), id -> header(row)).addLine(row);
+        }
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * Groups order line rows into orders one order at a time, without
+     * buffering more than the order being assembled.
+     *
+     * @param rows rows sorted by order ID
+     * @return an iterator over one DTO per order, in row order
+     */
+    public static Iterator<OrderResponseDTO> groupLines(Iterator<? extends OrderLineView> rows) {
+        return new Iterator<OrderResponseDTO>() {
+
+            private OrderLineView pending = rows.hasNext() ? rows.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return pending != null;
+            }
+
+            @Override
+            public OrderResponseDTO next() {
+                if (pending == null) {
+                    throw new NoSuchElementException();
+                }
+                OrderResponseDTO order = header(pending);
+                do {
+                    order.addLine(pending);
+                    pending = rows.hasNext() ? rows.next() : null;
+                } while (pending != null && pending.getOrderId().equals(order.getId()));
+                return order;
+            }
+        };
+    }
+
+    private static OrderResponseDTO header(OrderLineView row) {
+        return new OrderResponseDTO(row.getOrderId(), row.getOrderDate(), row.getStatus(), new ArrayList<>());
+    }
+
+    private void addLine(OrderLineView row) {
+        if (row.getItemId() != null) {
+            items.add(new OrderItemResponseDTO(row.getItemId(),
+                    new ProductSummaryDTO(row.getProductId(), row.getProductName(), row.getSku(), row.getPrice()),
+                    row.getQuantity()));
+        }
+    }
+}
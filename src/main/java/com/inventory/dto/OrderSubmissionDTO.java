@@ -0,0 +1,50 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) reporting the state of an order submitted
+ * through the asynchronous order endpoint.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSubmissionDTO {
+
+    /**
+     * Processing state of a submitted order.
+     */
+    public enum State {
+        QUEUED, CREATED, FAILED
+    }
+
+    /**
+     * ID to poll the submission with.
+     */
+    private String trackingId;
+
+    private State state;
+
+    /**
+     * ID of the created order; null until the order is created.
+     */
+    private Long orderId;
+
+    /**
+     * Reason the order failed; null unless it failed.
+     */
+    private String error;
+
+    private LocalDateTime submittedAt;
+
+    /**
+     * When the order was created or failed; null while queued.
+     */
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,46 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) reporting the counters of the product cache.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCacheStatsDTO {
+
+    /**
+     * Lookups answered from the cache.
+     */
+    private long hits;
+
+    /**
+     * Lookups that had to wait for a database load.
+     */
+    private long misses;
+
+    /**
+     * Database loads issued on misses.
+     */
+    private long loads;
+
+    /**
+     * Misses that joined a load already in progress for the same key.
+     */
+    private long coalescedLoads;
+
+    /**
+     * Entries dropped for size or age.
+     */
+    private long evictions;
+
+    /**
+     * Entries currently cached.
+     */
+    private int size;
+}
@@ -0,0 +1,32 @@
+package com.inventory.dto;
+
+import com.inventory.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) describing the product of an order item in
+ * order responses.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String sku;
+
+    private BigDecimal price;
+
+    public static ProductSummaryDTO from(Product product) {
+        return new ProductSummaryDTO(product.getId(), product.getName(), product.getSku(), product.getPrice());
+    }
+}
@@ -0,0 +1,56 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object (DTO) reporting the sizing and counters of the SKU
+ * Bloom filter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkuFilterStatsDTO {
+
+    /**
+     * Number of SKUs the filter was sized for.
+     */
+    private long expectedInsertions;
+
+    /**
+     * False-positive rate the filter was sized for.
+     */
+    private double configuredFalsePositiveRate;
+
+    /**
+     * False-positive rate expected at the current number of SKUs.
+     */
+    private double estimatedFalsePositiveRate;
+
+    /**
+     * SKUs added since startup, including the initial scan.
+     */
+    private long insertions;
+
+    private long bits;
+
+    private int hashFunctions;
+
+    /**
+     * Heap used by the bit array.
+     */
+    private long memoryBytes;
+
+    /**
+     * Existence checks answered by the filter.
+     */
+    private long queries;
+
+    /**
+     * Checks answered "definitely not present", each one a skipped SELECT.
+     */
+    private long definiteMisses;
+}
@@ -0,0 +1,42 @@
+package com.inventory.entity;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Records how far the in-memory inventory engine's journal has been applied
+ * to the products table.
+ * 
+ * The row is updated in the same transaction as the flushed stock deltas, so
+ * after a crash only journal records with a higher sequence number are
+ * replayed.
+ */
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_engine_checkpoint")
+public class InventoryEngineCheckpoint {
+    /**
+     * Fixed identifier of the single checkpoint row.
+     */
+    public static final long SINGLETON_ID = 1L;
+
+    /**
+     * Primary key; always {@link #SINGLETON_ID}.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Sequence number of the last journal record applied to the database.
+     */
+    @Column(nullable = false)
+    private Long lastSequence;
+}
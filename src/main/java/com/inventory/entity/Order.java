@@ -32,10 +32,12 @@ public class Order {
 
     /**
      * Unique identifier for the order.
-     * It is auto-generated by the database.
+     * Allocated in blocks of 50 from the orders_seq sequence (pooled
+     * optimizer), so inserts can be sent as JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     /**
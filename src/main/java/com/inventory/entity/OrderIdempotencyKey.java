@@ -0,0 +1,79 @@
+package com.inventory.entity;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+import org.springframework.data.domain.Persistable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents the stored result of an order created with an
+ * {@code Idempotency-Key} header.
+ *
+ * The row is inserted in the same transaction as the order, so a key maps to
+ * at most one order: a second transaction inserting the same key fails on the
+ * primary key and rolls its order back. Rows are never updated and are
+ * deleted once older than the idempotency TTL.
+ *
+ * Lombok annotations are used to reduce boilerplate by generating getters,
+ * setters, constructors, etc.
+ */
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_idempotency_keys",
+        indexes = @Index(name = "idx_order_idempotency_keys_created_at", columnList = "created_at"))
+public class OrderIdempotencyKey implements Persistable<String> {
+    /**
+     * Key sent by the client in the Idempotency-Key header.
+     */
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 of the order request, hex encoded, to reject a key reused for a
+     * different order.
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * ID of the order created for the key.
+     */
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /**
+     * Response body returned when the order was created, as JSON.
+     */
+    @Lob
+    @Column(nullable = false)
+    private String response;
+
+    /**
+     * Timestamp when the order was created.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Always true, so saving inserts the row and a duplicate key fails
+     * instead of being merged into the existing row.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -29,10 +29,12 @@ import lombok.Setter;
 public class OrderItem {
     /**
      * Primary key for the OrderItem entity.
-     * Auto-generated by the database using identity strategy.
+     * Allocated in blocks of 50 from the order_items_seq sequence (pooled
+     * optimizer), so inserts can be sent as JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     /**
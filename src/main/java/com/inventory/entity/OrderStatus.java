@@ -1,18 +1,46 @@
 package com.inventory.entity;
 
-import lombok.extern.slf4j.Slf4j;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Enum representing the possible statuses of an order in the system.
- * 
+ *
  * PENDING - Order has been created but not yet processed.
  * COMPLETED - Order has been successfully fulfilled.
  * CANCELLED - Order has been cancelled and will not be processed.
+ *
+ * Allowed transitions are kept in a table: each status maps to the set of
+ * statuses it may move to. COMPLETED and CANCELLED are final.
  */
-@Slf4j
 public enum OrderStatus {
     PENDING, COMPLETED, CANCELLED;
 
+    /** Statuses each status may move to. */
+    private static final Map<OrderStatus, Set<OrderStatus>> TARGETS = new EnumMap<>(OrderStatus.class);
+
+    /** Statuses an order must be in to move to each status. */
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : values()) {
+            TARGETS.put(status, EnumSet.noneOf(OrderStatus.class));
+            SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        allow(PENDING, COMPLETED);
+        allow(PENDING, CANCELLED);
+        TARGETS.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        SOURCES.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private static void allow(OrderStatus from, OrderStatus to) {
+        TARGETS.get(from).add(to);
+        SOURCES.get(to).add(from);
+    }
+
     /**
      * Determines whether an order can transition from the current status
      * to the specified new status.
@@ -21,28 +49,21 @@ public enum OrderStatus {
      * @return true if the transition is allowed, false otherwise.
      */
     public boolean canTransitionTo(OrderStatus newStatus) {
+        return newStatus != null && TARGETS.get(this).contains(newStatus);
+    }
 
-        log.info("Attempting status transition from {} to {}", this, newStatus);
-
-        // COMPLETED orders are final and cannot transition further
-        if (this == COMPLETED) {
-            log.warn("Transition denied: Order is already COMPLETED.");
-            return false;
-        }
-
-        // CANCELLED orders are final and cannot transition further
-        if (this == CANCELLED) {
-            log.warn("Transition denied: Order is already CANCELLED.");
-            return false;
-        }
-
-        // Transitioning to the same state is not considered a valid transition
-        if (this == newStatus) {
-            log.warn("Transition denied: Order is already in {} status.", this);
-            return false;
-        }
+    /**
+     * @return true if no transition leaves this status
+     */
+    public boolean isFinal() {
+        return TARGETS.get(this).isEmpty();
+    }
 
-        log.info("Transition allowed: {} to {}", this, newStatus);
-        return true;
+    /**
+     * @param target the status to move to
+     * @return the statuses from which an order may move to {@code target}
+     */
+    public static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        return SOURCES.get(target);
     }
 }
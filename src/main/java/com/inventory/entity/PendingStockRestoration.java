@@ -0,0 +1,49 @@
+package com.inventory.entity;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents stock to be returned to a product after an order was cancelled.
+ * 
+ * Cancellations only insert these rows, so they never contend on the products
+ * rows. A background job sums the queued rows per product and applies each
+ * sum with one UPDATE, then deletes them in the same transaction.
+ * 
+ * Lombok annotations are used to reduce boilerplate by generating getters,
+ * setters, constructors, etc.
+ */
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pending_stock_restorations")
+public class PendingStockRestoration {
+    /**
+     * Primary key, increasing in insertion order.
+     * Allocated in blocks of 50 from the pending_stock_restorations_seq sequence.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_stock_restoration_seq")
+    @SequenceGenerator(name = "pending_stock_restoration_seq", sequenceName = "pending_stock_restorations_seq",
+            allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID of the product the stock returns to.
+     */
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /**
+     * Units to add back to the product's stock.
+     */
+    @Column(nullable = false)
+    private Integer quantity;
+}
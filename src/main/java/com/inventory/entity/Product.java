@@ -3,8 +3,9 @@ package com.inventory.entity;
 import java.math.BigDecimal;
 import javax.persistence.*;
 import javax.validation.constraints.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,11 +21,12 @@ import lombok.Setter;
  * - Price (must be non-negative)
  * - Stock quantity (must be non-negative)
  * - Version (for optimistic locking)
+ * - Sharded stock (sum of the hot-SKU stock shards, filled in on demand)
  * 
  * Validation constraints ensure integrity and consistency of the data.
  * 
  * Lombok annotations
- * (@Data, @Getter, @Setter, @NoArgsConstructor, @AllArgsConstructor)
+ * (@Data, @Getter, @Setter, @NoArgsConstructor)
  * are used to generate boilerplate code like getters, setters, constructors,
  * equals/hashCode, and toString automatically.
  */
@@ -34,16 +36,21 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_stock", columnList = "stock"),
+        uniqueConstraints = @UniqueConstraint(name = Product.SKU_CONSTRAINT, columnNames = "sku"))
 public class Product {
+    /** Name of the unique constraint on the SKU column. */
+    public static final String SKU_CONSTRAINT = "uk_products_sku";
+
     /**
      * Unique identifier for the product.
      * 
-     * This field is the primary key and is auto-generated by the database.
+     * This field is the primary key and is allocated in blocks of 50 from the
+     * products_seq sequence (pooled optimizer).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -59,7 +66,7 @@ public class Product {
      * 
      * This is a unique identifier per product and cannot be null.
      */
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String sku;
 
     /**
@@ -76,6 +83,7 @@ public class Product {
      * Must be a non-negative integer.
      */
     @Min(value = 0, message = "Stock must be zero or a positive integer.")
+    @JsonIgnore
     private Integer stock;
 
     /**
@@ -89,4 +97,40 @@ public class Product {
     @Version
     private Integer version;
 
+    /**
+     * Stock held in {@link ProductStockShard} rows when the product is in hot
+     * SKU mode.
+     *
+     * Not mapped: loading a product never sums its shards. Code that reports
+     * stock fills it in through {@code ShardedStockService}; null until then.
+     */
+    @Transient
+    @JsonIgnore
+    private Integer shardedStock;
+
+    /**
+     * Creates a product from its persistent column values.
+     */
+    public Product(Long id, String name, String sku, BigDecimal price, Integer stock, Integer version) {
+        this.id = id;
+        this.name = name;
+        this.sku = sku;
+        this.price = price;
+        this.stock = stock;
+        this.version = version;
+    }
+
+    /**
+     * Total available stock: the stock column plus any stock held in shards.
+     *
+     * @return the stock a customer can order
+     */
+    @JsonProperty("stock")
+    public Integer getAvailableStock() {
+        if (shardedStock == null || shardedStock == 0) {
+            return stock;
+        }
+        return stock == null ? shardedStock : stock + shardedStock;
+    }
+
 }
@@ -0,0 +1,59 @@
+package com.inventory.entity;
+
+import javax.persistence.*;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents one sub-counter of a hot product's stock.
+ * 
+ * When a product is switched to hot SKU mode its stock is split across N
+ * shard rows, so concurrent orders decrement different rows instead of
+ * serializing on the single products row. The product's available stock is
+ * the sum of its shards.
+ * 
+ * Lombok annotations are used to reduce boilerplate by generating getters,
+ * setters, constructors, etc.
+ */
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_stock_shards", uniqueConstraints = @UniqueConstraint(columnNames = { "product_id",
+        "shard_index" }))
+public class ProductStockShard {
+    /**
+     * Primary key for the shard.
+     * Allocated in blocks of 50 from the product_stock_shards_seq sequence.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_stock_shard_seq")
+    @SequenceGenerator(name = "product_stock_shard_seq", sequenceName = "product_stock_shards_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * ID of the product this shard belongs to.
+     */
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    /**
+     * Position of the shard within the product, from 0 to N-1.
+     */
+    @Column(name = "shard_index", nullable = false)
+    private Integer shardIndex;
+
+    /**
+     * Units held by this shard.
+     * Must be a non-negative integer.
+     */
+    @Min(value = 0, message = "Stock must be zero or a positive integer.")
+    @Column(nullable = false)
+    private Integer stock;
+}
@@ -0,0 +1,38 @@
+package com.inventory.entity;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Running total of the value ordered for one product SKU.
+ * 
+ * The row is updated in the same transaction as the orders it accounts for:
+ * order creation adds the order's value and cancellation subtracts it, so
+ * the table always holds the total value of non-cancelled orders per SKU.
+ */
+@Entity
+@Data
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "sku_sales_summary")
+public class SkuSalesSummary {
+    /**
+     * Stock Keeping Unit (SKU) of the product.
+     */
+    @Id
+    private String sku;
+
+    /**
+     * Sum of price times quantity over the non-cancelled order items of the
+     * SKU.
+     */
+    @Column(nullable = false)
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,22 @@
+package com.inventory.exception;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Custom exception thrown when a stock update keeps conflicting with
+ * concurrent updates of the same product and the retry budget is exhausted.
+ *
+ * Typically thrown during order creation under heavy contention.
+ */
+@Slf4j
+public class ConcurrentStockUpdateException extends RuntimeException {
+    /**
+     * Constructs a new ConcurrentStockUpdateException with a detailed message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public ConcurrentStockUpdateException(String message) {
+        super(message);
+        log.error("ConcurrentStockUpdateException thrown: {}", message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.exception;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Custom exception thrown when a product is created with a SKU that already
+ * exists, whether the SKU pre-check finds it or the unique constraint rejects
+ * the insert because a concurrent insert of the same SKU got past the
+ * pre-check first.
+ */
+@Slf4j
+public class DuplicateSkuException extends RuntimeException {
+    /**
+     * Constructs a new DuplicateSkuException with a detailed message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public DuplicateSkuException(String message) {
+        super(message);
+        log.warn("DuplicateSkuException thrown: {}", message);
+    }
+}
@@ -1,5 +1,10 @@
 package com.inventory.exception;
 
+import com.inventory.service.InventoryMetrics;
+import com.inventory.service.InventoryMetrics.ApiError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
@@ -8,10 +13,15 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 @Slf4j
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
     /**
      * Handles ResourceNotFoundException and returns a NOT_FOUND (404) response.
      *
@@ -20,6 +30,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> handleNotFound(ResourceNotFoundException ex) {
+        inventoryMetrics.recordApiError(ApiError.NOT_FOUND);
         log.error("Resource not found: {}", ex.getMessage(), ex);
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
@@ -32,6 +43,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(InsufficientStockException.class)
     public ResponseEntity<String> handleStock(InsufficientStockException ex) {
+        inventoryMetrics.recordApiError(ApiError.INSUFFICIENT_STOCK);
         log.warn("Insufficient stock error: {}", ex.getMessage(), ex);
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
@@ -44,6 +56,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        inventoryMetrics.recordApiError(ApiError.BAD_REQUEST);
         log.warn("Bad request due to invalid input: {}", ex.getMessage(), ex);
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
@@ -59,6 +72,21 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
+        inventoryMetrics.recordApiError(ApiError.BAD_REQUEST);
+        return ResponseEntity.badRequest().body("Invalid input: " + ex.getMessage());
+    }
+
+    /**
+     * Handles request body validation errors of the reactive API.
+     *
+     * @param ex the WebExchangeBindException thrown during request body
+     *           validation.
+     * @return ResponseEntity containing a brief validation error message and HTTP
+     *         status 400.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<?> handleReactiveValidation(WebExchangeBindException ex) {
+        inventoryMetrics.recordApiError(ApiError.BAD_REQUEST);
         return ResponseEntity.badRequest().body("Invalid input: " + ex.getMessage());
     }
 
@@ -72,6 +100,79 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(org.springframework.orm.ObjectOptimisticLockingFailureException.class)
     public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        inventoryMetrics.recordApiError(ApiError.OPTIMISTIC_LOCK);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Concurrent update error. Please retry the transaction.");
+    }
+
+    /**
+     * Handles stock updates that kept conflicting after all retries.
+     *
+     * @param ex the ConcurrentStockUpdateException thrown
+     * @return ResponseEntity with a message suggesting a retry and HTTP status 409
+     *         (Conflict).
+     */
+    @ExceptionHandler(ConcurrentStockUpdateException.class)
+    public ResponseEntity<String> handleConcurrentStockUpdate(ConcurrentStockUpdateException ex) {
+        inventoryMetrics.recordApiError(ApiError.STOCK_CONFLICT);
+        log.warn("Concurrent stock update error: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Handles submissions to the asynchronous order queue while it is full.
+     *
+     * @param ex the OrderQueueFullException thrown
+     * @return ResponseEntity with a message suggesting a retry and HTTP status 429
+     *         (Too Many Requests).
+     */
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<String> handleOrderQueueFull(OrderQueueFullException ex) {
+        inventoryMetrics.recordApiError(ApiError.QUEUE_FULL);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles an Idempotency-Key reused for a different order.
+     *
+     * @param ex the IdempotencyKeyReuseException thrown
+     * @return ResponseEntity with error message and HTTP status 422
+     *         (Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        inventoryMetrics.recordApiError(ApiError.IDEMPOTENCY_KEY_REUSED);
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    /**
+     * Handles a product created with a SKU that already exists, found by the
+     * SKU pre-check or by the unique constraint. Other constraint violations are server errors and fall through to
+     * {@link #handleAll(Exception)}.
+     *
+     * @param ex the DuplicateSkuException thrown
+     * @return ResponseEntity with error message and HTTP status 409
+     *         (Conflict).
+     */
+    @ExceptionHandler(DuplicateSkuException.class)
+    public ResponseEntity<String> handleDuplicateSku(DuplicateSkuException ex) {
+        inventoryMetrics.recordApiError(ApiError.DUPLICATE_SKU);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    /**
+     * Handles lock timeouts and deadlocks, where the database rolled back the
+     * transaction of one of the competing requests.
+     *
+     * @param ex the PessimisticLockingFailureException thrown by Spring
+     * @return ResponseEntity with a message suggesting a retry and HTTP status 409
+     *         (Conflict).
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<String> handlePessimisticLockingFailure(PessimisticLockingFailureException ex) {
+        inventoryMetrics.recordApiError(ApiError.LOCK_FAILURE);
+        log.warn("Lock acquisition failed: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body("Concurrent update error. Please retry the transaction.");
     }
@@ -85,6 +186,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleAll(Exception ex) {
+        inventoryMetrics.recordApiError(ApiError.INTERNAL);
         log.error("Unexpected error occurred: {}", ex.getMessage(), ex);
         return new ResponseEntity<>("Internal Server Error", HttpStatus.INTERNAL_SERVER_ERROR);
     }
@@ -0,0 +1,22 @@
+package com.inventory.exception;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Custom exception thrown when an Idempotency-Key is sent again with a
+ * different order than the one it was first used for.
+ *
+ * The client has to use a new key for a new order.
+ */
+@Slf4j
+public class IdempotencyKeyReuseException extends RuntimeException {
+    /**
+     * Constructs a new IdempotencyKeyReuseException with a detailed message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+        log.warn("IdempotencyKeyReuseException thrown: {}", message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.exception;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Custom exception thrown when the asynchronous order queue is full and a
+ * submission has to be turned away.
+ *
+ * Clients should retry after a short delay.
+ */
+@Slf4j
+public class OrderQueueFullException extends RuntimeException {
+    /**
+     * Constructs a new OrderQueueFullException with a detailed message.
+     *
+     * @param message the detail message explaining the reason for the exception
+     */
+    public OrderQueueFullException(String message) {
+        super(message);
+        log.warn("OrderQueueFullException thrown: {}", message);
+    }
+}
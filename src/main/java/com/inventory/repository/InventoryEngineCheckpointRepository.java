@@ -0,0 +1,12 @@
+package com.inventory.repository;
+
+import com.inventory.entity.InventoryEngineCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the inventory engine's flush checkpoint.
+ */
+@Repository
+public interface InventoryEngineCheckpointRepository extends JpaRepository<InventoryEngineCheckpoint, Long> {
+}
@@ -0,0 +1,28 @@
+package com.inventory.repository;
+
+import com.inventory.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for the stored results of idempotent order requests.
+ */
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+
+    /**
+     * Deletes the row of a key if it expired, so the key can be used again.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from OrderIdempotencyKey k where k.idempotencyKey = :key and k.createdAt < :cutoff")
+    int deleteExpired(@Param("key") String key, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from OrderIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
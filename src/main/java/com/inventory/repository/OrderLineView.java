@@ -0,0 +1,35 @@
+package com.inventory.repository;
+
+import com.inventory.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of one order item joined with its order and product.
+ *
+ * Loading orders as flat rows of this projection reads an order, its items
+ * and their products in a single statement instead of lazy-loading the items
+ * per order and the product per item. The item and product columns are null
+ * for an order without items.
+ */
+public interface OrderLineView {
+
+    Long getOrderId();
+
+    LocalDateTime getOrderDate();
+
+    OrderStatus getStatus();
+
+    Long getItemId();
+
+    Integer getQuantity();
+
+    Long getProductId();
+
+    String getProductName();
+
+    String getSku();
+
+    BigDecimal getPrice();
+}
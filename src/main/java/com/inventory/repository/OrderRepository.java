@@ -1,8 +1,22 @@
 package com.inventory.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for accessing and managing Order entities.
@@ -10,4 +24,109 @@ import com.inventory.entity.Order;
  */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Selects the columns of {@link OrderLineView}; one row per order item.
+     */
+    String ORDER_LINES = "select o.id as orderId, o.orderDate as orderDate, o.status as status, "
+            + "i.id as itemId, i.quantity as quantity, p.id as productId, p.name as productName, "
+            + "p.sku as sku, p.price as price "
+            + "from Order o left join o.items i left join i.product p ";
+
+    /**
+     * Seeks past the given primary key instead of skipping rows with OFFSET.
+     */
+    @Query("select o.id from Order o where o.id > :id order by o.id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Reads the given orders with their items and products in one statement.
+     */
+    @Query(ORDER_LINES + "where o.id in :ids order by o.id, i.id")
+    List<OrderLineView> findLinesByOrderIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads all orders with their items and products through a forward-only
+     * cursor, 500 rows per fetch. Must be consumed inside a transaction and
+     * closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(ORDER_LINES + "order by o.id, i.id")
+    Stream<OrderLineView> streamAllLines();
+
+    /**
+     * Sums price times quantity per product SKU in the database over the
+     * orders in one of the given statuses. The date filters are ignored when
+     * null; {@code from} is inclusive and {@code to} exclusive.
+     */
+    @Query("select p.sku as sku, sum(p.price * i.quantity) as totalValue "
+            + "from OrderItem i join i.order o join i.product p "
+            + "where o.status in :statuses "
+            + "and (:from is null or o.orderDate >= :from) "
+            + "and (:to is null or o.orderDate < :to) "
+            + "group by p.sku")
+    List<SkuOrderValue> sumOrderValueBySku(@Param("statuses") Collection<OrderStatus> statuses,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Sums price times quantity per product SKU over the orders with IDs in
+     * {@code [fromId, toId]} that are not in the excluded status.
+     */
+    @Query("select p.sku as sku, sum(p.price * i.quantity) as totalValue "
+            + "from OrderItem i join i.order o join i.product p "
+            + "where o.id between :fromId and :toId and o.status <> :excluded "
+            + "group by p.sku")
+    List<SkuOrderValue> sumOrderValueBySkuInIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+            @Param("excluded") OrderStatus excluded);
+
+    /**
+     * Reads the status of the given orders without loading the orders.
+     */
+    @Query("select o.id as id, o.status as status from Order o where o.id in :ids")
+    List<OrderStatusView> findStatusesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the given orders to a new status in one statement, skipping every
+     * order that is not in one of the allowed current statuses.
+     *
+     * @return the number of orders moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status in :from")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("from") Collection<OrderStatus> from,
+            @Param("to") OrderStatus to);
+
+    /**
+     * Seeks the IDs of orders in the given statuses placed before a cutoff.
+     */
+    @Query("select o.id from Order o where o.status in :statuses and o.orderDate < :cutoff order by o.id")
+    List<Long> findIdsByStatusInAndOrderDateBefore(@Param("statuses") Collection<OrderStatus> statuses,
+            @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select count(o) from Order o where o.id in :ids")
+    long countByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the items of the given orders in one statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderItem i where i.order.id in :ids")
+    int deleteItemsByOrderIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the given orders if they are in one of the given statuses. Their
+     * items must be deleted first.
+     *
+     * @return the number of orders deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Order o where o.id in :ids and o.status in :statuses")
+    int deleteByIdsAndStatusIn(@Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("select min(o.id) from Order o")
+    Long findMinId();
+
+    @Query("select max(o.id) from Order o")
+    Long findMaxId();
 }
@@ -0,0 +1,13 @@
+package com.inventory.repository;
+
+import com.inventory.entity.OrderStatus;
+
+/**
+ * Read-only projection of the ID and status of an order.
+ */
+public interface OrderStatusView {
+
+    Long getId();
+
+    OrderStatus getStatus();
+}
@@ -0,0 +1,33 @@
+package com.inventory.repository;
+
+import com.inventory.entity.PendingStockRestoration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the queue of stock restorations from cancelled
+ * orders.
+ */
+@Repository
+public interface PendingStockRestorationRepository extends JpaRepository<PendingStockRestoration, Long> {
+
+    @Query("select max(r.id) from PendingStockRestoration r")
+    Long findMaxId();
+
+    /**
+     * Sums the queued quantities per product up to the given ID, in
+     * product-ID order.
+     */
+    @Query("select r.productId as productId, sum(r.quantity) as quantity, count(r) as lineCount "
+            + "from PendingStockRestoration r where r.id <= :maxId group by r.productId order by r.productId")
+    List<StockRestorationTotal> sumQuantitiesUpTo(@Param("maxId") Long maxId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from PendingStockRestoration r where r.id <= :maxId")
+    int deleteUpTo(@Param("maxId") Long maxId);
+}
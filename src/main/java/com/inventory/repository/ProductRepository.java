@@ -1,11 +1,23 @@
 package com.inventory.repository;
 
 import com.inventory.entity.*;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for accessing and managing Product entities.
@@ -16,4 +28,97 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySku(String sku);
 
     List<Product> findByStockLessThan(int threshold);
+
+    /**
+     * Seeks through the products whose available stock (stock column plus
+     * hot SKU shards) is below the threshold, in ID order.
+     *
+     * Shard stock is never negative, so {@code p.stock < :threshold} holds for
+     * every match and lets the database narrow the scan on the stock index
+     * before the shard sum is checked.
+     */
+    @Query("select p from Product p where p.stock < :threshold and p.id > :afterId "
+            + "and (select coalesce(sum(s.stock), 0) from ProductStockShard s where s.productId = p.id) "
+            + "< :threshold - p.stock order by p.id")
+    List<Product> findLowStock(@Param("threshold") int threshold, @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Seeks past the given primary key instead of skipping rows with OFFSET.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Reads all products through a forward-only cursor, 500 rows per fetch.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    /**
+     * Reads every SKU through a forward-only cursor, 500 rows per fetch.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.sku from Product p")
+    Stream<String> streamAllSkus();
+
+    @Query("select p.sku from Product p where p.sku in :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Reads the current stock and version of the given products without
+     * loading managed entities.
+     */
+    @Query("select p.id as id, p.sku as sku, p.stock as stock, p.version as version "
+            + "from Product p where p.id in :ids")
+    List<StockSnapshot> findStockSnapshots(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the given products with a PESSIMISTIC_WRITE lock, acquiring the
+     * row locks in product-ID order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids order by p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Decrements stock in a single conditional UPDATE.
+     *
+     * Neither flushes nor clears the persistence context, so the order inserts
+     * queued by earlier orders of a batch stay in one JDBC batch. A product
+     * already loaded in the transaction keeps its old stock until detached.
+     *
+     * @return 1 if the stock was decremented, 0 if the product doesn't exist or
+     *         has less than {@code quantity} units left
+     */
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = p.version + 1 "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Decrements stock only if the product still has the expected version
+     * (compare-and-set on the optimistic locking column). Leaves the
+     * persistence context alone, like {@link #decrementStock}.
+     *
+     * @return 1 if the stock was decremented, 0 on a version conflict or
+     *         insufficient stock
+     */
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.version = p.version + 1 "
+            + "where p.id = :id and p.version = :version and p.stock >= :quantity")
+    int decrementStockIfVersion(@Param("id") Long id, @Param("quantity") int quantity,
+            @Param("version") Integer version);
+
+    /**
+     * Adds a (possibly negative) delta to the stock without any check, for
+     * writers that already validated the change elsewhere.
+     *
+     * @return 1 if the product exists, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Product p set p.stock = p.stock + :delta, p.version = p.version + 1 where p.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
 }
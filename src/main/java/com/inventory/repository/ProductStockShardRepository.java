@@ -0,0 +1,81 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import javax.persistence.LockModeType;
+
+/**
+ * Repository interface for accessing and managing hot SKU stock shards.
+ */
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    long countByProductId(Long productId);
+
+    boolean existsByProductId(Long productId);
+
+    @Query("select distinct s.productId from ProductStockShard s")
+    List<Long> findShardedProductIds();
+
+    /**
+     * Finds which of the given products have shards.
+     */
+    @Query("select distinct s.productId from ProductStockShard s where s.productId in :ids")
+    List<Long> findShardedProductIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums the shards of every sharded product.
+     */
+    @Query("select s.productId as productId, sum(s.stock) as stock from ProductStockShard s group by s.productId")
+    List<ShardStockTotal> sumStockByProduct();
+
+    /**
+     * Sums the shards of the given products; products without shards are
+     * left out.
+     */
+    @Query("select s.productId as productId, sum(s.stock) as stock from ProductStockShard s "
+            + "where s.productId in :ids group by s.productId")
+    List<ShardStockTotal> sumStockByProduct(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads the stock of every shard of a product, in shard index order,
+     * without taking locks.
+     */
+    @Query("select s.stock from ProductStockShard s where s.productId = :productId order by s.shardIndex")
+    List<Integer> findShardStocks(@Param("productId") Long productId);
+
+    /**
+     * Loads all shards of a product with a PESSIMISTIC_WRITE lock, in shard
+     * index order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProductStockShard s where s.productId = :productId order by s.shardIndex")
+    List<ProductStockShard> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Decrements one shard in a single conditional UPDATE. Doesn't flush or
+     * clear the persistence context, so the inserts queued by earlier orders
+     * of a batch stay batched; the order path only reads shards through
+     * scalar queries, so no loaded shard entity goes stale.
+     *
+     * @return 1 if the shard was decremented, 0 if it holds less than
+     *         {@code quantity} units
+     */
+    @Modifying
+    @Query("update ProductStockShard s set s.stock = s.stock - :quantity "
+            + "where s.productId = :productId and s.shardIndex = :shardIndex and s.stock >= :quantity")
+    int decrementShard(@Param("productId") Long productId, @Param("shardIndex") int shardIndex,
+            @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ProductStockShard s where s.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+}
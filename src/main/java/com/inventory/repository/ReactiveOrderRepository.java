@@ -0,0 +1,88 @@
+package com.inventory.repository;
+
+import com.inventory.entity.OrderStatus;
+import io.r2dbc.spi.Row;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Non-blocking order queries for the reactive API, issued through R2DBC.
+ *
+ * Orders are read as {@link OrderLineView} rows, like in
+ * {@link OrderRepository}, so the same grouping code turns them into
+ * responses.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveOrderRepository {
+
+    private static final String ORDER_LINES = "select o.id as order_id, o.order_date, o.status, "
+            + "i.id as item_id, i.quantity, p.id as product_id, p.name as product_name, p.sku, p.price "
+            + "from orders o left join order_items i on i.order_id = o.id "
+            + "left join products p on p.id = i.product_id ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Seeks past the given primary key instead of skipping rows with OFFSET.
+     */
+    public Flux<Long> findIdsGreaterThan(long afterId, int limit) {
+        return databaseClient.sql("select id from orders where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> row.get("id", Long.class))
+                .all();
+    }
+
+    /**
+     * Reads the given orders with their items and products in one statement.
+     */
+    public Flux<OrderLineView> findLinesByOrderIds(Collection<Long> ids) {
+        return databaseClient.sql(ORDER_LINES + "where o.id in (:ids) order by o.id, i.id")
+                .bind("ids", ids)
+                .map((row, metadata) -> toLine(row))
+                .all();
+    }
+
+    /**
+     * Reads all orders with their items and products, sorted by order ID.
+     */
+    public Flux<OrderLineView> streamAllLines() {
+        return databaseClient.sql(ORDER_LINES + "order by o.id, i.id")
+                .map((row, metadata) -> toLine(row))
+                .all();
+    }
+
+    private static OrderLineView toLine(Row row) {
+        return new Line(row.get("order_id", Long.class), row.get("order_date", LocalDateTime.class),
+                OrderStatus.valueOf(row.get("status", String.class)), row.get("item_id", Long.class),
+                row.get("quantity", Integer.class), row.get("product_id", Long.class),
+                row.get("product_name", String.class), row.get("sku", String.class),
+                row.get("price", BigDecimal.class));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Line implements OrderLineView {
+        private final Long orderId;
+        private final LocalDateTime orderDate;
+        private final OrderStatus status;
+        private final Long itemId;
+        private final Integer quantity;
+        private final Long productId;
+        private final String productName;
+        private final String sku;
+        private final BigDecimal price;
+    }
+}
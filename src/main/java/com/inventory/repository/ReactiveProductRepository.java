@@ -0,0 +1,75 @@
+package com.inventory.repository;
+
+import com.inventory.entity.Product;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+/**
+ * Non-blocking product queries for the reactive API, issued through R2DBC.
+ *
+ * Each query mirrors its {@link ProductRepository} counterpart, including the
+ * stock held in hot SKU shards, and emits rows as the subscriber requests
+ * them.
+ */
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveProductRepository {
+
+    private static final String SHARDED_STOCK = "(select cast(coalesce(sum(s.stock), 0) as int) "
+            + "from product_stock_shards s where s.product_id = p.id)";
+
+    private static final String PRODUCTS = "select p.id, p.name, p.sku, p.price, p.stock, p.version, "
+            + SHARDED_STOCK + " as sharded_stock from products p ";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Seeks past the given primary key instead of skipping rows with OFFSET.
+     */
+    public Flux<Product> findPage(long afterId, int limit) {
+        return databaseClient.sql(PRODUCTS + "where p.id > :afterId order by p.id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    /**
+     * Seeks through the products whose available stock is below the
+     * threshold, in ID order.
+     */
+    public Flux<Product> findLowStock(int threshold, long afterId, int limit) {
+        return databaseClient.sql(PRODUCTS + "where p.stock < :threshold and p.id > :afterId and "
+                + SHARDED_STOCK + " < :threshold - p.stock order by p.id limit :limit")
+                .bind("threshold", threshold)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    /**
+     * Reads all products in ID order.
+     */
+    public Flux<Product> streamAll() {
+        return databaseClient.sql(PRODUCTS + "order by p.id")
+                .map((row, metadata) -> toProduct(row))
+                .all();
+    }
+
+    private static Product toProduct(Row row) {
+        Product product = new Product(row.get("id", Long.class), row.get("name", String.class),
+                row.get("sku", String.class), row.get("price", BigDecimal.class),
+                row.get("stock", Integer.class), row.get("version", Integer.class));
+        product.setShardedStock(row.get("sharded_stock", Integer.class));
+        return product;
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.repository;
+
+/**
+ * Read-only projection of the stock held in the shards of one product.
+ */
+public interface ShardStockTotal {
+
+    Long getProductId();
+
+    Long getStock();
+}
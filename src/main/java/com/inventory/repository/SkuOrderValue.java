@@ -0,0 +1,13 @@
+package com.inventory.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of the total value ordered for one product SKU.
+ */
+public interface SkuOrderValue {
+
+    String getSku();
+
+    BigDecimal getTotalValue();
+}
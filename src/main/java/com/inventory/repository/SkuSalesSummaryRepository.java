@@ -0,0 +1,40 @@
+package com.inventory.repository;
+
+import com.inventory.entity.SkuSalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Repository interface for accessing and maintaining the per-SKU sales
+ * summary.
+ */
+@Repository
+public interface SkuSalesSummaryRepository extends JpaRepository<SkuSalesSummary, String> {
+
+    /**
+     * Adds a (possibly negative) delta to the total of a SKU in a single
+     * UPDATE.
+     *
+     * Neither flushes nor clears the persistence context, so the order
+     * entities of the calling transaction stay managed and their inserts stay
+     * batched.
+     *
+     * @return 1 if the SKU has a summary row, 0 otherwise
+     */
+    @Modifying
+    @Query("update SkuSalesSummary s set s.totalValue = s.totalValue + :delta where s.sku = :sku")
+    int addValue(@Param("sku") String sku, @Param("delta") BigDecimal delta);
+
+    /**
+     * Inserts a zero total for a SKU. Unlike {@code save}, which merges into
+     * an existing row, this fails on a duplicate SKU.
+     */
+    @Modifying
+    @Query(value = "insert into sku_sales_summary (sku, total_value) values (:sku, 0)", nativeQuery = true)
+    int insertZero(@Param("sku") String sku);
+}
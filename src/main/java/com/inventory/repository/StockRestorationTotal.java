@@ -0,0 +1,13 @@
+package com.inventory.repository;
+
+/**
+ * Read-only projection of the queued stock restorations of one product.
+ */
+public interface StockRestorationTotal {
+
+    Long getProductId();
+
+    Long getQuantity();
+
+    Long getLineCount();
+}
@@ -0,0 +1,18 @@
+package com.inventory.repository;
+
+/**
+ * Read-only projection of the stock-related columns of a product.
+ *
+ * Scalar projections are not attached to the persistence context, so reading
+ * one always reflects the latest committed row rather than a cached entity.
+ */
+public interface StockSnapshot {
+
+    Long getId();
+
+    String getSku();
+
+    Integer getStock();
+
+    Integer getVersion();
+}
@@ -0,0 +1,295 @@
+package com.inventory.service;
+
+import com.inventory.dto.CatalogImportReportDTO;
+import com.inventory.dto.CatalogImportReportDTO.RejectedRow;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.stock.LowStockAlertService;
+import com.inventory.service.stock.LowStockIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * Imports product catalogs from CSV files with the columns
+ * {@code name,sku,price,stock}.
+ *
+ * The file is read through a buffered channel reader and each row is parsed
+ * into a reused field array and validated against the {@link ProductDTO}
+ * constraints without building a DTO. Valid rows are inserted in chunks of
+ * {@code inventory.catalog-import.chunk-size}, one transaction and one
+ * duplicate-SKU query per chunk, with the inserts sent as JDBC batches. After
+ * every committed chunk the line number reached is passed to a checkpoint
+ * callback, so an interrupted import can resume after it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogImportService {
+
+    private static final String[] COLUMNS = { "name", "sku", "price", "stock" };
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SkuBloomFilter skuFilter;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${inventory.catalog-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.catalog-import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${inventory.catalog-import.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    /**
+     * Imports a CSV catalog.
+     *
+     * @param channel         the CSV content; not closed
+     * @param resumeAfterLine lines up to and including this one are skipped; 0
+     *                        to import the whole file
+     * @param checkpoint      receives the last committed line number after
+     *                        every chunk
+     * @return the number of imported rows and the rejected rows
+     * @throws IOException if the channel cannot be read
+     */
+    public CatalogImportReportDTO importCsv(ReadableByteChannel channel, long resumeAfterLine,
+            LongConsumer checkpoint) throws IOException {
+        log.info("Starting catalog import after line {} in chunks of {}", resumeAfterLine, chunkSize);
+        CatalogImportReportDTO report = new CatalogImportReportDTO();
+        report.setLastCommittedLine(resumeAfterLine);
+
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(),
+                -1), 1 << 16);
+        String[] fields = new String[COLUMNS.length];
+        List<Product> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        Set<String> chunkSkus = new HashSet<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= resumeAfterLine || line.trim().isEmpty() || (lineNumber == 1 && isHeader(line))) {
+                continue;
+            }
+            report.setRowsRead(report.getRowsRead() + 1);
+
+            int count = split(line, fields);
+            String sku = count > 1 ? fields[1] : null;
+            String error = count != COLUMNS.length ? "Expected " + COLUMNS.length + " columns, found " + count
+                    : validate(fields);
+            if (error == null && !chunkSkus.add(sku)) {
+                error = "Duplicate SKU in file";
+            }
+            if (error != null) {
+                reject(report, lineNumber, sku, error);
+                continue;
+            }
+            chunk.add(new Product(null, fields[0], sku, new BigDecimal(fields[2]), Integer.valueOf(fields[3]), null));
+            chunkLines.add(lineNumber);
+            if (chunk.size() == chunkSize) {
+                commitChunk(chunk, chunkLines, report);
+                report.setLastCommittedLine(lineNumber);
+                checkpoint.accept(lineNumber);
+                chunk.clear();
+                chunkLines.clear();
+                chunkSkus.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            commitChunk(chunk, chunkLines, report);
+        }
+        report.setLastCommittedLine(Math.max(resumeAfterLine, lineNumber));
+        checkpoint.accept(report.getLastCommittedLine());
+        log.info("Catalog import finished: {} of {} rows imported, {} rejected", report.getImported(),
+                report.getRowsRead(), report.getRejected());
+        return report;
+    }
+
+    private void commitChunk(List<Product> chunk, List<Long> lines, CatalogImportReportDTO report) {
+        List<RejectedRow> rejections = new ArrayList<>();
+        try {
+            List<Product> inserted = transactionTemplate.execute(status -> insertChunk(chunk, lines, rejections));
+            inserted.forEach(product -> skuFilter.put(product.getSku()));
+            report.setImported(report.getImported() + inserted.size());
+            rejections.forEach(rejection -> reject(report, rejection.getLine(), rejection.getSku(),
+                    rejection.getReason()));
+        } catch (RuntimeException chunkFailure) {
+            log.debug("Import chunk of {} rows failed ({}), retrying rows one by one", chunk.size(),
+                    chunkFailure.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                commitRow(copy(chunk.get(i)), lines.get(i), report);
+            }
+        }
+    }
+
+    private List<Product> insertChunk(List<Product> chunk, List<Long> lines, List<RejectedRow> rejections) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        List<String> maybeExisting = new ArrayList<>();
+        for (Product product : chunk) {
+            if (skuFilter.mightContain(product.getSku())) {
+                maybeExisting.add(product.getSku());
+            }
+        }
+        Set<String> existing = maybeExisting.isEmpty() ? Collections.emptySet()
+                : new HashSet<>(productRepository.findExistingSkus(maybeExisting));
+
+        List<Product> inserted = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = chunk.get(i);
+            if (existing.contains(product.getSku())) {
+                rejections.add(new RejectedRow(lines.get(i), product.getSku(), "SKU must be unique"));
+                continue;
+            }
+            entityManager.persist(product);
+            lowStockIndex.putAfterCommit(product.getId(), product.getStock());
+            lowStockAlertService.publishCreatedAfterCommit(product.getId(), product.getStock());
+            inserted.add(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return inserted;
+    }
+
+    private void commitRow(Product product, long line, CatalogImportReportDTO report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!productRepository.findExistingSkus(Collections.singleton(product.getSku())).isEmpty()) {
+                    throw new IllegalArgumentException("SKU must be unique");
+                }
+                entityManager.persist(product);
+                lowStockIndex.putAfterCommit(product.getId(), product.getStock());
+                lowStockAlertService.publishCreatedAfterCommit(product.getId(), product.getStock());
+                entityManager.flush();
+            });
+            skuFilter.put(product.getSku());
+            report.setImported(report.getImported() + 1);
+        } catch (RuntimeException e) {
+            // A concurrent insert of the SKU committed between the lookup and the flush
+            reject(report, line, product.getSku(), ProductService.isDuplicateSku(e) ? "SKU must be unique"
+                    : e.getMessage());
+        }
+    }
+
+    private void reject(CatalogImportReportDTO report, long line, String sku, String reason) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getRejections().size() < maxReportedRejections) {
+            report.getRejections().add(new RejectedRow(line, sku, reason));
+        }
+    }
+
+    /**
+     * Checks the fields against the {@link ProductDTO} constraints.
+     *
+     * @return the violation messages, or null if the row is valid
+     */
+    private String validate(String[] fields) {
+        List<String> messages = new ArrayList<>();
+        violations("name", emptyToNull(fields[0]), messages);
+        violations("sku", emptyToNull(fields[1]), messages);
+        try {
+            violations("price", fields[2].isEmpty() ? null : new BigDecimal(fields[2]), messages);
+        } catch (NumberFormatException e) {
+            messages.add("Price must be a number.");
+        }
+        try {
+            violations("stock", fields[3].isEmpty() ? null : Integer.valueOf(fields[3]), messages);
+        } catch (NumberFormatException e) {
+            messages.add("Stock must be an integer.");
+        }
+        return messages.isEmpty() ? null : String.join(" ", messages);
+    }
+
+    private void violations(String property, Object value, List<String> messages) {
+        for (ConstraintViolation<ProductDTO> violation : validator.validateValue(ProductDTO.class, property, value)) {
+            messages.add(violation.getMessage());
+        }
+    }
+
+    /**
+     * Splits a CSV line into the given array, honouring double-quoted fields
+     * with doubled quotes as escapes. Fields are trimmed.
+     *
+     * @return the number of fields found; fields beyond the array are counted
+     *         but dropped
+     */
+    static int split(String line, String[] fields) {
+        int count = 0;
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                if (count < fields.length) {
+                    fields[count] = field.toString().trim();
+                }
+                count++;
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (count < fields.length) {
+            fields[count] = field.toString().trim();
+        }
+        return count + 1;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith(COLUMNS[0]);
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Product copy(Product product) {
+        return new Product(null, product.getName(), product.getSku(), product.getPrice(), product.getStock(), null);
+    }
+}
@@ -0,0 +1,115 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.dto.OrderResponseDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderLineView;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.stock.ShardedStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders and products as newline-delimited JSON (one object per
+ * line) for bulk exports.
+ *
+ * Rows are read through a forward-only database cursor and written to the
+ * response as they arrive, and the persistence context is cleared every
+ * {@code inventory.export.clear-interval} rows, so the heap used by an export
+ * does not depend on the size of the table. Orders are read as
+ * {@link OrderLineView} rows, so each order comes out of the cursor together
+ * with its items and products.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final byte[] NEWLINE = { '\n' };
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${inventory.export.clear-interval:500}")
+    private int clearInterval;
+
+    /**
+     * Writes every order with its items, in ascending ID order.
+     *
+     * @param out the stream to write to; left open
+     * @return the number of orders written
+     */
+    @Transactional
+    public long exportOrders(OutputStream out) throws IOException {
+        log.info("Starting order export");
+        try (Stream<OrderLineView> lines = orderRepository.streamAllLines()) {
+            long count = write(OrderResponseDTO.groupLines(lines.iterator()), out);
+            log.info("Order export finished: {} orders written", count);
+            return count;
+        }
+    }
+
+    /**
+     * Writes every product, in ascending ID order.
+     *
+     * @param out the stream to write to; left open
+     * @return the number of products written
+     */
+    @Transactional
+    public long exportProducts(OutputStream out) throws IOException {
+        log.info("Starting product export");
+        Map<Long, Integer> shardedStocks = shardedStockService.getShardedStocks();
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            long count = write(products
+                    .peek(product -> product.setShardedStock(shardedStocks.getOrDefault(product.getId(), 0)))
+                    .iterator(), out);
+            log.info("Product export finished: {} products written", count);
+            return count;
+        }
+    }
+
+    private long write(Iterator<?> iterator, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        while (iterator.hasNext()) {
+            writer.writeValue(out, iterator.next());
+            out.write(NEWLINE);
+            if (++count % clearInterval == 0) {
+                out.flush();
+                entityManager.clear();
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
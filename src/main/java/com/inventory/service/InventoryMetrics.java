@@ -0,0 +1,284 @@
+package com.inventory.service;
+
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics of the order and stock hot paths, published through Micrometer
+ * and scraped from {@code /actuator/prometheus}.
+ *
+ * Every meter is registered once at startup and the recording methods take
+ * primitive values, so recording on the order path allocates nothing.
+ * Per-product contention is counted in {@link LongAdder}s and published every
+ * {@code inventory.metrics.contention.refresh-millis} as a gauge of the
+ * {@code inventory.metrics.contention.top} most contended SKUs of the last
+ * interval, which keeps the number of SKU-tagged series bounded. The adders
+ * are never reset or removed, so a concurrent conflict is never lost; each
+ * interval publishes the growth since the previous one.
+ */
+@Slf4j
+@Component
+public class InventoryMetrics {
+
+    /**
+     * Error responses mapped by the global exception handler.
+     */
+    public enum ApiError {
+        NOT_FOUND, BAD_REQUEST, INSUFFICIENT_STOCK, OPTIMISTIC_LOCK, STOCK_CONFLICT, LOCK_FAILURE, DUPLICATE_SKU,
+        QUEUE_FULL, IDEMPOTENCY_KEY_REUSED, INTERNAL
+    }
+
+    /**
+     * How an order request with an Idempotency-Key was answered.
+     */
+    public enum IdempotentOutcome {
+        /** The order was created. */
+        EXECUTED,
+        /** The stored result of an earlier request was returned. */
+        REPLAYED,
+        /** The request waited for a concurrent request with the same key. */
+        COALESCED
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${inventory.metrics.contention.top:10}")
+    private int topContended;
+
+    private Timer orderCreation;
+    private Timer statusUpdate;
+    private Timer bulkStatusUpdate;
+    private Counter bulkStatusUpdated;
+    private Counter bulkStatusRejected;
+    private Timer summaryFromTable;
+    private Timer summaryFromQuery;
+    private DistributionSummary orderLines;
+    private Counter insufficientStock;
+    private Counter stockConflictFailures;
+    private Counter lockFailures;
+    private Counter otherFailures;
+    private Counter stockConflicts;
+    private Counter stockRetries;
+    private MultiGauge topContention;
+    private final Map<ApiError, Counter> apiErrors = new EnumMap<>(ApiError.class);
+    private final Map<IdempotentOutcome, Counter> idempotentRequests = new EnumMap<>(IdempotentOutcome.class);
+
+    /** Conflicts per product ID since startup; bounded by the number of products. */
+    private final Map<Long, LongAdder> contention = new ConcurrentHashMap<>();
+
+    /** Conflicts per product ID as of the last refresh; guarded by the refresh. */
+    private final Map<Long, Long> contentionPublished = new HashMap<>();
+
+    /**
+     * Registers the meters.
+     */
+    @PostConstruct
+    public void register() {
+        orderCreation = latency("inventory.orders.create", "Order creation, including stock reservation");
+        statusUpdate = latency("inventory.orders.status.update", "Order status updates");
+        bulkStatusUpdate = latency("inventory.orders.status.bulk", "Bulk order status updates");
+        bulkStatusUpdated = Counter.builder("inventory.orders.status.bulk.orders").tag("outcome", "updated")
+                .description("Orders in bulk status updates").register(meterRegistry);
+        bulkStatusRejected = Counter.builder("inventory.orders.status.bulk.orders").tag("outcome", "rejected")
+                .description("Orders in bulk status updates").register(meterRegistry);
+        summaryFromTable = Timer.builder("inventory.orders.summary").tag("source", "table")
+                .description("Order value summaries").publishPercentileHistogram().register(meterRegistry);
+        summaryFromQuery = Timer.builder("inventory.orders.summary").tag("source", "query")
+                .description("Order value summaries").publishPercentileHistogram().register(meterRegistry);
+        orderLines = DistributionSummary.builder("inventory.orders.lines")
+                .description("Lines per created order")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+        insufficientStock = failure("insufficient_stock");
+        stockConflictFailures = failure("stock_conflict");
+        lockFailures = failure("lock_failure");
+        otherFailures = failure("other");
+        stockConflicts = Counter.builder("inventory.stock.conflicts")
+                .description("Stock updates that lost a race with a concurrent order")
+                .register(meterRegistry);
+        stockRetries = Counter.builder("inventory.stock.retries")
+                .description("Stock updates retried after a conflict")
+                .register(meterRegistry);
+        for (ApiError error : ApiError.values()) {
+            apiErrors.put(error, Counter.builder("inventory.api.errors")
+                    .tag("error", error.name().toLowerCase(Locale.ROOT))
+                    .description("Error responses by cause")
+                    .register(meterRegistry));
+        }
+        for (IdempotentOutcome outcome : IdempotentOutcome.values()) {
+            idempotentRequests.put(outcome, Counter.builder("inventory.orders.idempotent")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .description("Order requests with an Idempotency-Key")
+                    .register(meterRegistry));
+        }
+        topContention = MultiGauge.builder("inventory.stock.contention.top")
+                .description("Stock conflicts per SKU in the last refresh interval, for the most contended SKUs")
+                .register(meterRegistry);
+    }
+
+    private Timer latency(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+
+    private Counter failure(String reason) {
+        return Counter.builder("inventory.orders.failures")
+                .tag("reason", reason)
+                .description("Orders that could not be created")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when creation started
+     * @param lineCount  lines of the order
+     */
+    public void recordOrderCreated(long startNanos, int lineCount) {
+        orderCreation.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        orderLines.record(lineCount);
+    }
+
+    /**
+     * Records a failed order creation and classifies its cause.
+     *
+     * @param startNanos {@link System#nanoTime()} when creation started
+     * @param failure    the exception that aborted the order, or null if its
+     *                   transaction rolled back for another reason
+     */
+    public void recordOrderFailed(long startNanos, RuntimeException failure) {
+        orderCreation.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (failure instanceof InsufficientStockException) {
+            insufficientStock.increment();
+        } else if (failure instanceof ConcurrentStockUpdateException
+                || failure instanceof OptimisticLockingFailureException) {
+            stockConflictFailures.increment();
+        } else if (failure instanceof PessimisticLockingFailureException) {
+            lockFailures.increment();
+        } else {
+            otherFailures.increment();
+        }
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the update started
+     */
+    public void recordStatusUpdate(long startNanos) {
+        statusUpdate.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the update started
+     * @param updated    orders moved to the new status
+     * @param rejected   orders not found or not allowed to move
+     */
+    public void recordBulkStatusUpdate(long startNanos, int updated, int rejected) {
+        bulkStatusUpdate.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        bulkStatusUpdated.increment(updated);
+        bulkStatusRejected.increment(rejected);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the summary started
+     * @param fromTable  whether the summary was read from the sales summary
+     *                   table rather than aggregated from the order items
+     */
+    public void recordSummary(long startNanos, boolean fromTable) {
+        (fromTable ? summaryFromTable : summaryFromQuery).record(System.nanoTime() - startNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a stock update of the given product that lost a race with a
+     * concurrent order.
+     *
+     * @param productId the contended product
+     */
+    public void recordStockConflict(Long productId) {
+        stockConflicts.increment();
+        LongAdder counter = contention.get(productId);
+        if (counter == null) {
+            counter = contention.computeIfAbsent(productId, id -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public void recordStockRetry() {
+        stockRetries.increment();
+    }
+
+    public void recordApiError(ApiError error) {
+        apiErrors.get(error).increment();
+    }
+
+    public void recordIdempotentRequest(IdempotentOutcome outcome) {
+        idempotentRequests.get(outcome).increment();
+    }
+
+    /**
+     * Publishes the most contended SKUs of the interval that just ended and
+     * starts a new interval.
+     */
+    @Scheduled(fixedDelayString = "${inventory.metrics.contention.refresh-millis:15000}")
+    public synchronized void refreshContention() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : contention.entrySet()) {
+            long total = entry.getValue().sum();
+            Long previous = contentionPublished.put(entry.getKey(), total);
+            long count = total - (previous == null ? 0 : previous);
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        List<Long> top = counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(topContended)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<Long, String> skus = new HashMap<>();
+        if (!top.isEmpty()) {
+            try {
+                for (StockSnapshot snapshot : productRepository.findStockSnapshots(top)) {
+                    skus.put(snapshot.getId(), snapshot.getSku());
+                }
+            } catch (RuntimeException e) {
+                log.debug("Could not resolve SKUs of contended products: {}", e.getMessage());
+            }
+        }
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Long productId : top) {
+            rows.add(MultiGauge.Row.of(Tags.of("sku", skus.getOrDefault(productId, String.valueOf(productId))),
+                    counts.get(productId)));
+        }
+        topContention.register(rows, true);
+    }
+}
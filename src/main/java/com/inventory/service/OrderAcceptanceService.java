@@ -0,0 +1,227 @@
+package com.inventory.service;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderQueueStatsDTO;
+import com.inventory.dto.OrderSubmissionDTO;
+import com.inventory.dto.OrderSubmissionDTO.State;
+import com.inventory.exception.OrderQueueFullException;
+import com.inventory.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accepts orders into a bounded in-process queue and creates them in the
+ * background, so the HTTP thread returns as soon as the order is queued.
+ *
+ * A pool of {@code inventory.orders.async.workers} threads drains the queue
+ * in micro-batches of up to {@code inventory.orders.async.batch-size} orders
+ * through {@link OrderBatchService}, which commits each batch in one
+ * transaction and falls back to one transaction per order on failure. The
+ * outcome of every submission is kept for polling until
+ * {@code inventory.orders.async.status-retention-millis} after it completed.
+ * When the queue is full, submissions are rejected instead of blocking.
+ *
+ * The queue lives in memory: orders still queued when the process dies are
+ * lost, so clients that did not see a final state must resubmit.
+ */
+@Slf4j
+@Service
+public class OrderAcceptanceService {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Value("${inventory.orders.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.orders.async.workers:4}")
+    private int workerCount;
+
+    @Value("${inventory.orders.async.batch-size:50}")
+    private int batchSize;
+
+    @Value("${inventory.orders.async.status-retention-millis:600000}")
+    private long statusRetentionMillis;
+
+    @Value("${inventory.orders.async.shutdown-timeout-millis:30000}")
+    private long shutdownTimeoutMillis;
+
+    private BlockingQueue<Submission> queue;
+
+    private ExecutorService workers;
+
+    private volatile boolean running;
+
+    private final Map<String, OrderSubmissionDTO> submissions = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastLagMillis;
+
+    /**
+     * Allocates the queue and starts the workers.
+     */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+            private int next;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "order-acceptance-" + next++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drain);
+        }
+        log.info("Order acceptance queue started with capacity {} and {} workers", queueCapacity, workerCount);
+    }
+
+    /**
+     * Queues an order for creation.
+     *
+     * @param orderDTO the validated order
+     * @return the queued submission, with the ID to poll it with
+     * @throws OrderQueueFullException if the queue has no room left
+     */
+    public OrderSubmissionDTO submit(OrderDTO orderDTO) {
+        String trackingId = UUID.randomUUID().toString();
+        OrderSubmissionDTO submission = new OrderSubmissionDTO(trackingId, State.QUEUED, null, null,
+                LocalDateTime.now(), null);
+        submissions.put(trackingId, submission);
+        if (!running || !queue.offer(new Submission(trackingId, orderDTO, System.nanoTime()))) {
+            submissions.remove(trackingId);
+            rejected.incrementAndGet();
+            throw new OrderQueueFullException("Order queue is full. Please retry later.");
+        }
+        accepted.incrementAndGet();
+        log.debug("Order queued with tracking ID {}", trackingId);
+        return submission;
+    }
+
+    /**
+     * @param trackingId the ID returned on submission
+     * @return the current state of the submission
+     * @throws ResourceNotFoundException if the ID is unknown or its outcome
+     *                                   is no longer retained
+     */
+    public OrderSubmissionDTO getSubmission(String trackingId) {
+        OrderSubmissionDTO submission = submissions.get(trackingId);
+        if (submission == null) {
+            throw new ResourceNotFoundException("Order submission not found: " + trackingId);
+        }
+        return submission;
+    }
+
+    /**
+     * @return the queue depth, processing lag and counters
+     */
+    public OrderQueueStatsDTO getStats() {
+        Submission oldest = queue.peek();
+        long oldestWait = oldest == null ? 0
+                : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedAt);
+        return new OrderQueueStatsDTO(queue.size(), queueCapacity, oldestWait, lastLagMillis, accepted.get(),
+                rejected.get(), created.get(), failed.get());
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Processing a batch of {} queued orders failed: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(submission -> complete(submission, null, e.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<Submission> batch) {
+        lastLagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.get(0).enqueuedAt);
+        List<OrderDTO> orders = new ArrayList<>(batch.size());
+        batch.forEach(submission -> orders.add(submission.order));
+        List<BatchOrderResultDTO> results = orderBatchService.createOrders(orders);
+        for (int i = 0; i < batch.size(); i++) {
+            BatchOrderResultDTO result = results.get(i);
+            complete(batch.get(i), result.getOrderId(), result.getError());
+        }
+    }
+
+    private void complete(Submission submission, Long orderId, String error) {
+        OrderSubmissionDTO queued = submissions.get(submission.trackingId);
+        LocalDateTime submittedAt = queued == null ? null : queued.getSubmittedAt();
+        State state = orderId != null ? State.CREATED : State.FAILED;
+        (state == State.CREATED ? created : failed).incrementAndGet();
+        submissions.put(submission.trackingId, new OrderSubmissionDTO(submission.trackingId, state, orderId,
+                error, submittedAt, LocalDateTime.now()));
+    }
+
+    /**
+     * Forgets the outcome of submissions that completed longer ago than the
+     * retention period.
+     */
+    @Scheduled(fixedDelayString = "${inventory.orders.async.status-cleanup-interval-millis:60000}")
+    public void evictCompleted() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(statusRetentionMillis));
+        submissions.values().removeIf(submission -> submission.getCompletedAt() != null
+                && submission.getCompletedAt().isBefore(cutoff));
+    }
+
+    /**
+     * Stops accepting orders and lets the workers drain the queue.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("Order queue not drained on shutdown, {} orders dropped", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class Submission {
+        private final String trackingId;
+        private final OrderDTO order;
+        private final long enqueuedAt;
+
+        private Submission(String trackingId, OrderDTO order, long enqueuedAt) {
+            this.trackingId = trackingId;
+            this.order = order;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
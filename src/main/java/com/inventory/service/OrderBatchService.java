@@ -0,0 +1,143 @@
+package com.inventory.service;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.OrderDTO;
+import com.inventory.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates orders in bulk for the batch ingestion endpoint.
+ *
+ * Orders are processed in chunks of {@code inventory.orders.batch.chunk-size},
+ * one transaction per chunk, so the order and order item inserts of a chunk
+ * are flushed together as JDBC batches. The stock and summary UPDATEs run
+ * once per order but don't flush the persistence context, so they don't
+ * split those batches. If any order of a chunk fails, the
+ * chunk is rolled back and its orders are replayed one transaction each, so
+ * that every order gets its own success or failure result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBatchService {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${inventory.orders.batch.chunk-size:100}")
+    private int chunkSize;
+
+    @Value("${inventory.orders.batch.max-orders:50000}")
+    private int maxOrders;
+
+    /**
+     * Creates the given orders and reports the outcome of each.
+     *
+     * @param orders the orders to create
+     * @return one result per submitted order, in submission order
+     * @throws IllegalArgumentException if more than the allowed number of
+     *                                  orders is submitted
+     */
+    public List<BatchOrderResultDTO> createOrders(List<OrderDTO> orders) {
+        if (orders.size() > maxOrders) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxOrders + " orders");
+        }
+        log.info("Starting batch creation of {} orders in chunks of {}", orders.size(), chunkSize);
+        BatchOrderResultDTO[] results = new BatchOrderResultDTO[orders.size()];
+
+        List<Integer> chunk = new ArrayList<>(chunkSize);
+        for (int index = 0; index < orders.size(); index++) {
+            String violations = validate(orders.get(index));
+            if (violations != null) {
+                results[index] = BatchOrderResultDTO.failed(index, violations);
+                continue;
+            }
+            chunk.add(index);
+            if (chunk.size() == chunkSize) {
+                processChunk(orders, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(orders, chunk, results);
+        }
+
+        long created = Arrays.stream(results)
+                .filter(r -> r.getOutcome() == BatchOrderResultDTO.Outcome.CREATED)
+                .count();
+        log.info("Batch finished: {} of {} orders created", created, orders.size());
+        return Arrays.asList(results);
+    }
+
+    private void processChunk(List<OrderDTO> orders, List<Integer> chunk, BatchOrderResultDTO[] results) {
+        try {
+            List<Long> orderIds = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>(chunk.size());
+                for (Integer index : chunk) {
+                    Order order = orderService.createOrder(orders.get(index));
+                    ids.add(order.getId());
+                    // The stock UPDATEs don't refresh loaded products; detach them so the
+                    // next order of the chunk reads the stock this one left.
+                    order.getItems().forEach(item -> entityManager.detach(item.getProduct()));
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return ids;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = BatchOrderResultDTO.created(chunk.get(i), orderIds.get(i));
+            }
+        } catch (RuntimeException chunkFailure) {
+            log.debug("Chunk of {} orders failed ({}), retrying orders one by one", chunk.size(),
+                    chunkFailure.getMessage());
+            for (Integer index : chunk) {
+                results[index] = processSingle(index, orders.get(index));
+            }
+        }
+    }
+
+    private BatchOrderResultDTO processSingle(int index, OrderDTO orderDTO) {
+        try {
+            Order order = transactionTemplate.execute(status -> orderService.createOrder(orderDTO));
+            return BatchOrderResultDTO.created(index, order.getId());
+        } catch (RuntimeException e) {
+            log.warn("Order {} of batch failed: {}", index, e.getMessage());
+            return BatchOrderResultDTO.failed(index, e.getMessage());
+        }
+    }
+
+    private String validate(OrderDTO orderDTO) {
+        if (orderDTO == null) {
+            return "Order must not be null";
+        }
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(orderDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,317 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.dto.OrderResponseDTO;
+import com.inventory.entity.OrderIdempotencyKey;
+import com.inventory.exception.IdempotencyKeyReuseException;
+import com.inventory.repository.OrderIdempotencyKeyRepository;
+import com.inventory.service.InventoryMetrics.IdempotentOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates orders at most once per {@code Idempotency-Key}.
+ *
+ * The first request with a key creates the order and stores its response in
+ * the {@code order_idempotency_keys} table, in the order transaction. Later
+ * requests with the key get the stored response back without creating an
+ * order, from a bounded LRU cache of {@code inventory.idempotency.cache-size}
+ * results or else from the table. A request arriving while another request
+ * with the same key is still running waits for it and shares its outcome,
+ * including its error. Only created orders are stored, so a request that
+ * failed can be retried with the same key.
+ *
+ * Keys expire after {@code inventory.idempotency.ttl-millis}; expired rows
+ * are purged every {@code inventory.idempotency.purge-interval-millis}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotencyService {
+
+    /** Request header carrying the key. */
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    /** Response header set to true when a stored response is returned. */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Value("${inventory.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${inventory.idempotency.ttl-millis:86400000}")
+    private long ttlMillis;
+
+    /** Stored results in access order; guarded by itself. */
+    private final LinkedHashMap<String, Stored> cache = new LinkedHashMap<String, Stored>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /** Requests in progress, keyed by idempotency key. */
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an order unless one was already created with the same key.
+     *
+     * @param key      the client's idempotency key
+     * @param orderDTO the order to create
+     * @return the response of the order created with the key, and whether it
+     *         was created by an earlier request
+     * @throws IllegalArgumentException      if the key is blank or too long
+     * @throws IdempotencyKeyReuseException  if the key was used for a
+     *                                       different order
+     */
+    public IdempotentOrder createOrder(String key, OrderDTO orderDTO) {
+        if (key == null || key.trim().isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(orderDTO);
+        Stored stored = find(key);
+        if (stored != null) {
+            return replay(key, stored, requestHash, IdempotentOutcome.REPLAYED);
+        }
+
+        InFlight mine = new InFlight(requestHash);
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.requestHash.equals(requestHash)) {
+                throw reused(key);
+            }
+            try {
+                return replay(key, running.result.join(), requestHash, IdempotentOutcome.COALESCED);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            // A request with the key may have finished between the lookup and
+            // registering this one.
+            stored = cached(key);
+            if (stored != null) {
+                mine.result.complete(stored);
+                return replay(key, stored, requestHash, IdempotentOutcome.REPLAYED);
+            }
+            return execute(key, requestHash, orderDTO, mine.result);
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Deletes the stored results older than the TTL.
+     *
+     * @return the number of deleted rows
+     */
+    @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-millis:600000}")
+    public int purgeExpired() {
+        LocalDateTime cutoff = cutoff();
+        Integer purged = transactionTemplate.execute(status -> keyRepository.deleteCreatedBefore(cutoff));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} idempotency keys created before {}", purged, cutoff);
+        }
+        return purged == null ? 0 : purged;
+    }
+
+    private IdempotentOrder execute(String key, String requestHash, OrderDTO orderDTO,
+            CompletableFuture<Stored> result) {
+        LocalDateTime cutoff = cutoff();
+        Stored stored;
+        try {
+            stored = transactionTemplate.execute(status -> {
+                keyRepository.deleteExpired(key, cutoff);
+                OrderResponseDTO response = OrderResponseDTO.from(orderService.createOrder(orderDTO));
+                LocalDateTime createdAt = LocalDateTime.now();
+                keyRepository.saveAndFlush(new OrderIdempotencyKey(key, requestHash, response.getId(),
+                        toJson(response), createdAt));
+                return new Stored(requestHash, response, createdAt);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed an order with the key first; this
+            // order was rolled back.
+            Stored committed = find(key);
+            if (committed == null) {
+                throw e;
+            }
+            result.complete(committed);
+            return replay(key, committed, requestHash, IdempotentOutcome.REPLAYED);
+        }
+        synchronized (cache) {
+            cache.put(key, stored);
+        }
+        result.complete(stored);
+        inventoryMetrics.recordIdempotentRequest(IdempotentOutcome.EXECUTED);
+        log.debug("Order {} created for idempotency key {}", stored.response.getId(), key);
+        return new IdempotentOrder(stored.response, false);
+    }
+
+    private IdempotentOrder replay(String key, Stored stored, String requestHash, IdempotentOutcome outcome) {
+        if (!stored.requestHash.equals(requestHash)) {
+            throw reused(key);
+        }
+        inventoryMetrics.recordIdempotentRequest(outcome);
+        log.debug("Replaying order {} for idempotency key {}", stored.response.getId(), key);
+        return new IdempotentOrder(stored.response, true);
+    }
+
+    /**
+     * Looks a key up in the cache, then in the table.
+     */
+    private Stored find(String key) {
+        Stored stored = cached(key);
+        if (stored != null) {
+            return stored;
+        }
+        OrderIdempotencyKey row = keyRepository.findById(key).orElse(null);
+        if (row == null || row.getCreatedAt().isBefore(cutoff())) {
+            return null;
+        }
+        stored = new Stored(row.getRequestHash(), fromJson(row.getResponse()), row.getCreatedAt());
+        synchronized (cache) {
+            cache.put(key, stored);
+        }
+        return stored;
+    }
+
+    private Stored cached(String key) {
+        synchronized (cache) {
+            Stored stored = cache.get(key);
+            if (stored != null && stored.createdAt.isBefore(cutoff())) {
+                cache.remove(key);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    /**
+     * Clears the cache, so stored results are read from the table again.
+     */
+    void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(ttlMillis, ChronoUnit.MILLIS);
+    }
+
+    private static IdempotencyKeyReuseException reused(String key) {
+        return new IdempotencyKeyReuseException(KEY_HEADER + " '" + key
+                + "' was already used for a different order");
+    }
+
+    /**
+     * @return SHA-256 of the product IDs and quantities in request order
+     */
+    private static String hash(OrderDTO orderDTO) {
+        StringBuilder canonical = new StringBuilder();
+        for (OrderItemDTO item : orderDTO.getItems()) {
+            canonical.append(item.getProductId()).append(':').append(item.getQuantity()).append(';');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(OrderResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order " + response.getId(), e);
+        }
+    }
+
+    private OrderResponseDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order response", e);
+        }
+    }
+
+    /**
+     * Response of an idempotent order request.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class IdempotentOrder {
+        private final OrderResponseDTO response;
+
+        /** True if the order was created by an earlier request with the key. */
+        private final boolean replayed;
+    }
+
+    private static final class Stored {
+        private final String requestHash;
+        private final OrderResponseDTO response;
+        private final LocalDateTime createdAt;
+
+        private Stored(String requestHash, OrderResponseDTO response, LocalDateTime createdAt) {
+            this.requestHash = requestHash;
+            this.response = response;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class InFlight {
+        private final String requestHash;
+        private final CompletableFuture<Stored> result = new CompletableFuture<>();
+
+        private InFlight(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPage;
 import com.inventory.dto.OrderDTO;
 import com.inventory.dto.OrderItemDTO;
+import com.inventory.dto.OrderResponseDTO;
 import com.inventory.entity.*;
+import com.inventory.exception.ConcurrentStockUpdateException;
 import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.*;
+import com.inventory.service.archive.OrderArchive;
+import com.inventory.service.audit.AuditLog;
+import com.inventory.service.stock.InventoryEngine;
+import com.inventory.service.stock.LowStockAlertService;
+import com.inventory.service.stock.LowStockIndex;
+import com.inventory.service.stock.ShardedStockService;
+import com.inventory.service.stock.StockChange;
+import com.inventory.service.stock.StockReservationStrategy;
+import com.inventory.service.stock.StockRestorationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import javax.persistence.OptimisticLockException;
 import javax.transaction.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,7 +42,32 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
-    private ProductRepository productRepository;
+    private StockReservationStrategy stockReservationStrategy;
+    @Autowired
+    private ShardedStockService shardedStockService;
+    @Autowired
+    private InventoryEngine inventoryEngine;
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+    @Autowired
+    private LowStockIndex lowStockIndex;
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+    @Autowired
+    private ProductCache productCache;
+    @Autowired
+    private StockRestorationService stockRestorationService;
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+    @Autowired
+    private AuditLog auditLog;
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Value("${inventory.pagination.default-limit:100}")
+    private int defaultPageLimit;
+    @Value("${inventory.pagination.max-limit:1000}")
+    private int maxPageLimit;
 
     /**
      * Creates a new order with the provided order items.
@@ -38,15 +79,40 @@ public class OrderService {
      * @throws IllegalArgumentException   if quantity is invalid
      * @throws ResourceNotFoundException  if the product doesn't exist
      * @throws InsufficientStockException if product stock is insufficient
+     * @throws ConcurrentStockUpdateException if concurrent stock updates could
+     *                                        not be resolved
      */
     @Transactional
     public Order createOrder(OrderDTO orderDTO) {
-        log.info("Starting order creation for order with items: {}", orderDTO.getItems());
+        // Recorded once the transaction completes, so the timer includes the
+        // commit and an order whose commit fails counts as failed.
+        long start = System.nanoTime();
+        try {
+            Order order = placeOrder(orderDTO);
+            int lineCount = orderDTO.getItems().size();
+            afterCompletion(status -> {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    inventoryMetrics.recordOrderCreated(start, lineCount);
+                } else {
+                    inventoryMetrics.recordOrderFailed(start, null);
+                }
+            });
+            return order;
+        } catch (RuntimeException e) {
+            afterCompletion(status -> inventoryMetrics.recordOrderFailed(start, e));
+            throw e;
+        }
+    }
+
+    private Order placeOrder(OrderDTO orderDTO) {
+        log.debug("Starting order creation for order with items: {}", orderDTO.getItems());
         Order order = new Order();
         order.setOrderDate(LocalDateTime.now());
         order.setStatus(OrderStatus.PENDING);
 
-        List<OrderItem> orderItems = new ArrayList<>();
+        // Merge lines per product so duplicate product IDs are checked against
+        // their combined quantity; the TreeMap keeps a fixed product-ID order.
+        SortedMap<Long, Integer> requestedQuantities = new TreeMap<>();
         for (OrderItemDTO itemDTO : orderDTO.getItems()) {
             log.debug("Processing item: {}", itemDTO);
 
@@ -54,47 +120,103 @@ public class OrderService {
                 log.error("Invalid quantity: {} for product ID: {}", itemDTO.getQuantity(), itemDTO.getProductId());
                 throw new IllegalArgumentException("Quantity must be greater than zero");
             }
+            requestedQuantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
 
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> {
-                        log.error("Product not found for ID: {}", itemDTO.getProductId());
-                        return new ResourceNotFoundException("Product not found");
-                    });
-
-            if (product.getStock() < itemDTO.getQuantity()) {
-                log.warn("Insufficient stock for product: {} (Available: {}, Requested: {})",
-                        product.getSku(), product.getStock(), itemDTO.getQuantity());
-                throw new InsufficientStockException(
-                        "Insufficient stock for product: " + product.getSku());
-            }
+        Map<Long, StockChange> stockChanges = new HashMap<>();
+        Map<Long, Product> products = reserveStock(requestedQuantities, stockChanges);
+        Map<Long, Integer> stockDeltas = new HashMap<>();
+        requestedQuantities.forEach((productId, quantity) -> stockDeltas.put(productId, -quantity));
+        lowStockIndex.adjustAfterCommit(stockDeltas);
+        lowStockAlertService.publishAfterCommit(stockChanges);
+
+        List<OrderItem> orderItems = buildItems(order, orderDTO.getItems(), products);
+        log.debug("Order Item size : {}", orderItems.size());
+        order.setItems(orderItems);
+        Order savedOrder = orderRepository.save(order);
 
-            product.setStock(product.getStock() - itemDTO.getQuantity());
-            log.info("Stock updated for product: {}. Remaining: {}", product.getSku(), product.getStock());
+        Map<String, BigDecimal> orderValue = new HashMap<>();
+        for (OrderItem item : orderItems) {
+            orderValue.merge(item.getProduct().getSku(),
+                    item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())), BigDecimal::add);
+        }
+        salesSummaryService.record(orderValue);
+        auditLog.orderCreatedAfterCommit(savedOrder);
+        log.debug("Order created successfully with ID: {} and status: {}", savedOrder.getId(), savedOrder.getStatus());
+        return savedOrder;
+    }
+
+    /**
+     * Maps the requested lines to order items of the given order, one item per
+     * line in request order.
+     *
+     * @param products the reserved products by ID
+     */
+    static List<OrderItem> buildItems(Order order, List<OrderItemDTO> lines, Map<Long, Product> products) {
+        List<OrderItem> orderItems = new ArrayList<>(lines.size());
+        for (OrderItemDTO itemDTO : lines) {
             OrderItem item = new OrderItem();
             item.setOrder(order);
-            item.setProduct(product);
+            item.setProduct(products.get(itemDTO.getProductId()));
             item.setQuantity(itemDTO.getQuantity());
             orderItems.add(item);
         }
-        log.info("Order Item size : {}", orderItems.size());
-        // Save products (stock updated)
-        try {
-            productRepository.saveAll(
-                    orderItems.stream()
-                            .map(OrderItem::getProduct)
-                            .collect(Collectors.toList()));
-        } catch (OptimisticLockException e) {
-            log.error("Optimistic locking failure during stock update", e);
-            throw new RuntimeException("Concurrent stock update detected. Please retry.");
+        return orderItems;
+    }
+
+    /**
+     * Reserves stock for every product of an order. Hot SKUs, found from their
+     * shard rows in the order transaction, are decremented through their stock
+     * shards first, the remaining products through the
+     * in-memory inventory engine when it is enabled, otherwise through the
+     * configured reservation strategy.
+     *
+     * Products whose row was decremented are refreshed in the product cache
+     * after commit. Products reserved through the engine are not read from the
+     * database at all: their name, SKU and price come from the product cache,
+     * as detached copies the order items only use for their foreign key.
+     *
+     * @param requestedQuantities merged quantities keyed by product ID
+     * @param changes             receives the stock before and after the
+     *                            reservation per product ID
+     * @return the reserved products keyed by product ID
+     */
+    private Map<Long, Product> reserveStock(SortedMap<Long, Integer> requestedQuantities,
+            Map<Long, StockChange> changes) {
+        Set<Long> shardedIds = shardedStockService.findSharded(requestedQuantities.keySet());
+        SortedMap<Long, Integer> sharded = new TreeMap<>();
+        SortedMap<Long, Integer> regular = new TreeMap<>();
+        requestedQuantities.forEach((productId, quantity) -> (shardedIds.contains(productId) ? sharded
+                : regular).put(productId, quantity));
+
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        if (!sharded.isEmpty()) {
+            products.putAll(shardedStockService.reserve(sharded));
+            sharded.keySet().forEach(id -> remaining.put(id, products.get(id).getAvailableStock()));
         }
-        order.setItems(orderItems);
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {} and status: {}", savedOrder.getId(), savedOrder.getStatus());
-        return savedOrder;
+        if (!regular.isEmpty() && !inventoryEngine.isEnabled()) {
+            products.putAll(stockReservationStrategy.reserve(regular));
+            regular.keySet().forEach(id -> remaining.put(id, products.get(id).getStock()));
+        }
+        productCache.refreshAfterCommit(products.values());
+        if (!regular.isEmpty() && inventoryEngine.isEnabled()) {
+            remaining.putAll(inventoryEngine.reserve(regular));
+            for (Long productId : regular.keySet()) {
+                products.put(productId, productCache.getById(productId).orElseThrow(() -> {
+                    log.error("Product not found for ID: {}", productId);
+                    return new ResourceNotFoundException("Product not found");
+                }));
+            }
+        }
+        requestedQuantities.forEach((productId, quantity) -> changes.put(productId,
+                StockChange.to(remaining.get(productId), -quantity)));
+        return products;
     }
 
     /**
-     * Updates the status of an existing order.
+     * Updates the status of an existing order. Cancelling an order queues its
+     * stock to be returned to the products by the next restoration flush.
      *
      * @param orderId   the order ID to update
      * @param newStatus the new status to set
@@ -104,7 +226,16 @@ public class OrderService {
      */
     @Transactional
     public Order updateStatus(Long orderId, OrderStatus newStatus) {
-        log.info("Updating status for order ID: {} to {}", orderId, newStatus);
+        long start = System.nanoTime();
+        try {
+            return applyStatus(orderId, newStatus);
+        } finally {
+            afterCompletion(status -> inventoryMetrics.recordStatusUpdate(start));
+        }
+    }
+
+    private Order applyStatus(Long orderId, OrderStatus newStatus) {
+        log.debug("Updating status for order ID: {} to {}", orderId, newStatus);
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> {
@@ -112,15 +243,43 @@ public class OrderService {
                     return new ResourceNotFoundException("Order not found: " + orderId);
                 });
 
-        if (!order.getStatus().canTransitionTo(newStatus)) {
-            log.warn("Invalid status transition from {} to {}", order.getStatus(), newStatus);
+        OrderStatus from = order.getStatus();
+        // The conditional UPDATE moves the order only if no concurrent request
+        // moved it first, so a second cancellation can't release stock again.
+        if (!from.canTransitionTo(newStatus) || orderRepository.updateStatuses(Collections.singleton(orderId),
+                OrderStatus.sourcesOf(newStatus), newStatus) != 1) {
+            log.warn("Invalid status transition from {} to {}", from, newStatus);
             throw new IllegalArgumentException("Cannot transition to same or invalid status.");
         }
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        log.info("Order status updated successfully for ID: {} to {}", orderId, newStatus);
+        auditLog.statusChangedAfterCommit(orderId, from, newStatus);
+        if (newStatus == OrderStatus.CANCELLED) {
+            releaseCancelled(Collections.singleton(orderId));
+        }
+        log.debug("Order status updated successfully for ID: {} to {}", orderId, newStatus);
 
-        return updatedOrder;
+        return orderRepository.findById(orderId).orElseThrow(() -> new ResourceNotFoundException(
+                "Order not found: " + orderId));
+    }
+
+    /**
+     * Removes cancelled orders from the sales summary and queues their stock
+     * to be returned. Must be called inside the cancelling transaction.
+     *
+     * @param orderIds IDs of orders that were just cancelled
+     */
+    public void releaseCancelled(Collection<Long> orderIds) {
+        Map<String, BigDecimal> cancelledValue = new HashMap<>();
+        Map<Long, Integer> releasedStock = new HashMap<>();
+        for (OrderLineView line : orderRepository.findLinesByOrderIds(orderIds)) {
+            if (line.getItemId() != null) {
+                cancelledValue.merge(line.getSku(),
+                        line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())).negate(),
+                        BigDecimal::add);
+                releasedStock.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            }
+        }
+        salesSummaryService.record(cancelledValue);
+        stockRestorationService.restore(releasedStock);
     }
 
     /**
@@ -135,6 +294,66 @@ public class OrderService {
         return orders;
     }
 
+    /**
+     * Retrieves one page of orders in ascending ID order, seeking on the
+     * primary key so that deep pages cost the same as the first one.
+     *
+     * @param after cursor returned with the previous page, or null for the
+     *              first page
+     * @param limit maximum number of orders, or null for the default
+     * @return the page of orders, read in two statements, and the cursor of
+     *         the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    public CursorPage<OrderResponseDTO> getOrdersPage(String after, Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        log.info("Fetching up to {} orders after ID {}", pageSize, afterId);
+
+        List<Long> orderIds = orderRepository.findIdsGreaterThan(afterId, PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (orderIds.size() > pageSize) {
+            orderIds = orderIds.subList(0, pageSize);
+            nextCursor = CursorPage.encode(orderIds.get(pageSize - 1));
+        }
+        List<OrderResponseDTO> orders = orderIds.isEmpty() ? Collections.emptyList()
+                : OrderResponseDTO.fromLines(orderRepository.findLinesByOrderIds(orderIds));
+        log.info("Retrieved {} orders", orders.size());
+        return new CursorPage<>(orders, nextCursor);
+    }
+
+    /**
+     * Summarizes the total order value per product SKU with a single
+     * aggregate query, so memory scales with the number of SKUs rather than
+     * the number of order lines. Archived orders are included.
+     *
+     * @param status only count orders in this status, or null for every
+     *               status but CANCELLED, like the sales summary table
+     * @param from   only count orders placed at or after this time, or null
+     * @param to     only count orders placed before this time, or null
+     * @return map of SKU to total order value
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public Map<String, BigDecimal> summarizeTotalOrderValue(OrderStatus status, LocalDateTime from,
+            LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        log.info("Summarizing total order value per product SKU (status: {}, from: {}, to: {})", status, from, to);
+        long start = System.nanoTime();
+        Set<OrderStatus> statuses = status == null ? EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED))
+                : EnumSet.of(status);
+        Map<String, BigDecimal> summary = new HashMap<>();
+        for (SkuOrderValue value : orderRepository.sumOrderValueBySku(statuses, from, to)) {
+            summary.put(value.getSku(), value.getTotalValue());
+        }
+        orderArchive.sumOrderValueBySku(statuses, from, to).forEach(
+                (sku, value) -> summary.merge(sku, value, BigDecimal::add));
+        inventoryMetrics.recordSummary(start, false);
+        log.info("Order value summary computed for {} SKUs", summary.size());
+        return summary;
+    }
+
     /**
      * Summarizes the total order value per product SKU.
      *
@@ -155,4 +374,21 @@ public class OrderService {
         summary.forEach((sku, totalValue) -> log.debug("SKU: {}, Total Order Value: {}", sku, totalValue));
         return summary;
     }
+
+    /**
+     * Runs an action with the completion status of the current transaction
+     * once it committed or rolled back, or right away outside a transaction.
+     */
+    private void afterCompletion(IntConsumer action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status);
+            }
+        });
+    }
 }
@@ -0,0 +1,156 @@
+package com.inventory.service;
+
+import com.inventory.dto.BulkStatusUpdateResultDTO;
+import com.inventory.dto.BulkStatusUpdateResultDTO.Reason;
+import com.inventory.dto.BulkStatusUpdateResultDTO.RejectedOrder;
+import com.inventory.entity.OrderStatus;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.OrderStatusView;
+import com.inventory.service.audit.AuditLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Moves many orders to one status for the bulk status endpoint.
+ *
+ * Order IDs are processed in chunks of
+ * {@code inventory.orders.status.bulk.chunk-size}, one transaction per chunk.
+ * A chunk reads the current status of its orders in one query and moves every
+ * order allowed to make the transition with a single conditional UPDATE,
+ * without loading the orders. Cancelled orders are removed from the sales
+ * summary and their stock queued for restoration in the same transaction, as
+ * for a single status change. If an order of the chunk changes status between
+ * the read and the UPDATE, the chunk is rolled back and read again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusBatchService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${inventory.orders.status.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.orders.status.bulk.max-orders:100000}")
+    private int maxOrders;
+
+    @Value("${inventory.orders.status.bulk.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Moves the given orders to a new status.
+     *
+     * @param orderIds the orders to move; duplicates are ignored
+     * @param status   the new status
+     * @return the number of moved orders and the orders that were not moved
+     * @throws IllegalArgumentException               if more than the allowed
+     *                                                number of orders is
+     *                                                submitted
+     * @throws ObjectOptimisticLockingFailureException if a chunk kept changing
+     *                                                concurrently
+     */
+    public BulkStatusUpdateResultDTO updateStatuses(Collection<Long> orderIds, OrderStatus status) {
+        Set<Long> distinct = new LinkedHashSet<>(orderIds);
+        if (distinct.size() > maxOrders) {
+            throw new IllegalArgumentException("A bulk update may contain at most " + maxOrders + " orders");
+        }
+        long start = System.nanoTime();
+        log.info("Starting bulk status update of {} orders to {} in chunks of {}", distinct.size(), status,
+                chunkSize);
+        BulkStatusUpdateResultDTO result = new BulkStatusUpdateResultDTO();
+        result.setStatus(status);
+        result.setRequested(distinct.size());
+
+        List<Long> chunk = new ArrayList<>(chunkSize);
+        for (Long orderId : distinct) {
+            chunk.add(orderId);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, status, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, status, result);
+        }
+        inventoryMetrics.recordBulkStatusUpdate(start, result.getUpdated(), result.getRejected().size());
+        log.info("Bulk status update finished: {} of {} orders moved to {}", result.getUpdated(),
+                result.getRequested(), status);
+        return result;
+    }
+
+    private void processChunk(List<Long> chunk, OrderStatus status, BulkStatusUpdateResultDTO result) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            List<RejectedOrder> rejected = new ArrayList<>();
+            Integer updated = transactionTemplate.execute(tx -> {
+                Integer moved = moveChunk(chunk, status, rejected);
+                if (moved == null) {
+                    tx.setRollbackOnly();
+                }
+                return moved;
+            });
+            if (updated != null) {
+                result.setUpdated(result.getUpdated() + updated);
+                result.getRejected().addAll(rejected);
+                return;
+            }
+            log.debug("Orders of a chunk changed status concurrently, attempt {} of {}", attempt, maxAttempts);
+        }
+        throw new ObjectOptimisticLockingFailureException(
+                "Orders kept changing status during the bulk update, please retry", null);
+    }
+
+    /**
+     * @return the number of moved orders, or null if some order changed
+     *         status after it was read
+     */
+    private Integer moveChunk(List<Long> chunk, OrderStatus status, List<RejectedOrder> rejected) {
+        Map<Long, OrderStatus> current = new HashMap<>();
+        for (OrderStatusView view : orderRepository.findStatusesByIds(chunk)) {
+            current.put(view.getId(), view.getStatus());
+        }
+        Map<Long, OrderStatus> movable = new LinkedHashMap<>();
+        for (Long orderId : chunk) {
+            OrderStatus from = current.get(orderId);
+            if (from == null) {
+                rejected.add(new RejectedOrder(orderId, null, Reason.NOT_FOUND));
+            } else if (!from.canTransitionTo(status)) {
+                rejected.add(new RejectedOrder(orderId, from, Reason.INVALID_TRANSITION));
+            } else {
+                movable.put(orderId, from);
+            }
+        }
+        if (movable.isEmpty()) {
+            return 0;
+        }
+        int moved = orderRepository.updateStatuses(movable.keySet(), OrderStatus.sourcesOf(status), status);
+        if (moved != movable.size()) {
+            return null;
+        }
+        if (status == OrderStatus.CANCELLED) {
+            orderService.releaseCancelled(movable.keySet());
+        }
+        auditLog.statusesChangedAfterCommit(movable, status);
+        return moved;
+    }
+}
@@ -0,0 +1,272 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductCacheStatsDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of products, keyed by ID and by SKU.
+ *
+ * Entries are detached copies, evicted approximately least-recently-used
+ * beyond {@code inventory.product-cache.max-size} and expired after
+ * {@code inventory.product-cache.ttl-millis}. Hits only read concurrent maps
+ * and mark the entry as referenced; eviction is a CLOCK sweep run under a lock
+ * on the store path, which gives referenced entries a second chance.
+ * Concurrent misses on the same key share a single database load. Committed
+ * stock changes refresh an entry only with a higher {@code @Version}, so a
+ * late refresh never overwrites a newer copy; changes that don't bump the
+ * version evict the entry instead.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${inventory.product-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${inventory.product-cache.ttl-millis:60000}")
+    private long ttlMillis;
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> bySku = new ConcurrentHashMap<>();
+
+    /**
+     * Entries in insertion order for the CLOCK sweep; guarded by itself, which
+     * also serializes stores and removals. May hold replaced or removed
+     * entries, which the sweep skips.
+     */
+    private final Deque<Entry> clock = new ArrayDeque<>();
+
+    /** Loads in progress, keyed by "id:" or "sku:" key. */
+    private final Map<String, CompletableFuture<Optional<Product>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param id the product ID
+     * @return a copy of the product, or empty if it doesn't exist
+     */
+    public Optional<Product> getById(Long id) {
+        Entry entry = live(id);
+        if (entry != null) {
+            return Optional.of(hit(entry));
+        }
+        misses.incrementAndGet();
+        return load("id:" + id, () -> productRepository.findById(id));
+    }
+
+    /**
+     * @param sku the product SKU
+     * @return a copy of the product, or empty if it doesn't exist
+     */
+    public Optional<Product> getBySku(String sku) {
+        Long id = bySku.get(sku);
+        Entry entry = id == null ? null : live(id);
+        if (entry != null && entry.product.getSku().equals(sku)) {
+            return Optional.of(hit(entry));
+        }
+        misses.incrementAndGet();
+        return load("sku:" + sku, () -> productRepository.findBySku(sku));
+    }
+
+    /**
+     * Refreshes the cached copies of the given products once the current
+     * transaction commits.
+     *
+     * @param products products read inside the transaction, after their stock
+     *                 changed
+     */
+    public void refreshAfterCommit(Collection<Product> products) {
+        List<Product> copies = new ArrayList<>();
+        for (Product product : products) {
+            copies.add(copy(product));
+        }
+        afterCommit(() -> copies.forEach(this::refresh));
+    }
+
+    /**
+     * Evicts a product once the current transaction commits.
+     *
+     * @param id the product ID
+     */
+    public void evictAfterCommit(Long id) {
+        afterCommit(() -> {
+            synchronized (clock) {
+                remove(id);
+            }
+        });
+    }
+
+    /**
+     * @return hit, miss, load and eviction counters and the current size
+     */
+    public ProductCacheStatsDTO getStats() {
+        return new ProductCacheStatsDTO(hits.get(), misses.get(), loads.get(), coalesced.get(),
+                evictions.get(), byId.size());
+    }
+
+    private Optional<Product> load(String key, Supplier<Optional<Product>> loader) {
+        CompletableFuture<Optional<Product>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<Product>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            try {
+                return running.join().map(ProductCache::copy);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            loads.incrementAndGet();
+            Optional<Product> loaded = loader.get().map(ProductCache::copy);
+            loaded.ifPresent(product -> store(product, false));
+            mine.complete(loaded);
+            return loaded.map(ProductCache::copy);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Stores a copy read after a committed change. An entry whose version did
+     * not move forward is evicted, since the change didn't bump the version.
+     */
+    void refresh(Product product) {
+        store(product, true);
+    }
+
+    /**
+     * Stores a copy unless a copy with a higher version is already cached.
+     */
+    private void store(Product product, boolean evictIfNotNewer) {
+        synchronized (clock) {
+            Entry current = byId.get(product.getId());
+            if (current != null && compareVersions(current.product, product) >= 0) {
+                if (evictIfNotNewer) {
+                    remove(product.getId());
+                }
+                return;
+            }
+            if (current != null) {
+                bySku.remove(current.product.getSku(), product.getId());
+            }
+            Entry entry = new Entry(product, System.currentTimeMillis());
+            byId.put(product.getId(), entry);
+            bySku.put(product.getSku(), product.getId());
+            clock.addLast(entry);
+            while (byId.size() > maxSize) {
+                evictOne();
+            }
+            if (clock.size() > 2 * Math.max(maxSize, 1)) {
+                clock.removeIf(stale -> byId.get(stale.product.getId()) != stale);
+            }
+        }
+    }
+
+    /**
+     * Evicts the first unreferenced live entry in the sweep, clearing and
+     * requeueing referenced ones on the way. Called holding the clock lock.
+     */
+    private void evictOne() {
+        Entry entry;
+        while ((entry = clock.pollFirst()) != null) {
+            if (byId.get(entry.product.getId()) != entry) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.addLast(entry);
+                continue;
+            }
+            remove(entry.product.getId());
+            evictions.incrementAndGet();
+            return;
+        }
+    }
+
+    private Product hit(Entry entry) {
+        entry.referenced = true;
+        hits.incrementAndGet();
+        return copy(entry.product);
+    }
+
+    private Entry live(Long id) {
+        Entry entry = byId.get(id);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+            if (byId.remove(id, entry)) {
+                bySku.remove(entry.product.getSku(), id);
+                evictions.incrementAndGet();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private void remove(Long id) {
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            bySku.remove(removed.product.getSku(), id);
+        }
+    }
+
+    private static int compareVersions(Product a, Product b) {
+        int left = a.getVersion() == null ? -1 : a.getVersion();
+        int right = b.getVersion() == null ? -1 : b.getVersion();
+        return Integer.compare(left, right);
+    }
+
+    private static Product copy(Product product) {
+        Product copy = new Product(product.getId(), product.getName(), product.getSku(), product.getPrice(),
+                product.getStock(), product.getVersion());
+        copy.setShardedStock(product.getShardedStock());
+        return copy;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final Product product;
+        private final long loadedAt;
+        private volatile boolean referenced;
+
+        private Entry(Product product, long loadedAt) {
+            this.product = product;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
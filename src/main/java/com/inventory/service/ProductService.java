@@ -1,13 +1,28 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.ProductCacheStatsDTO;
 import com.inventory.dto.ProductDTO;
+import com.inventory.dto.SkuFilterStatsDTO;
 import com.inventory.entity.Product;
+import com.inventory.exception.DuplicateSkuException;
+import com.inventory.exception.ResourceNotFoundException;
 import com.inventory.repository.ProductRepository;
+import com.inventory.service.stock.LowStockAlertService;
+import com.inventory.service.stock.LowStockIndex;
+import com.inventory.service.stock.ShardedStockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 import javax.transaction.Transactional;
 
@@ -19,13 +34,36 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private SkuBloomFilter skuFilter;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Value("${inventory.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    @Value("${inventory.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
     /**
      * Creates a new product with validation for SKU uniqueness and non-negative
      * stock.
      *
      * @param productDTO the data transfer object containing product details
      * @return the saved Product entity
-     * @throws IllegalArgumentException if stock is negative or SKU already exists
+     * @throws IllegalArgumentException if stock is negative
+     * @throws DuplicateSkuException    if the SKU already exists, or a
+     *                                  concurrent insert of it committed first
      */
     @Transactional
     public Product createProduct(ProductDTO productDTO) {
@@ -36,21 +74,79 @@ public class ProductService {
             throw new IllegalArgumentException("Stock cannot be negative");
         }
 
-        if (productRepository.findBySku(productDTO.getSku()).isPresent()) {
+        if (skuFilter.mightContain(productDTO.getSku()) && productCache.getBySku(productDTO.getSku()).isPresent()) {
             log.warn("Duplicate SKU detected: {}", productDTO.getSku());
-            throw new IllegalArgumentException("SKU must be unique");
+            throw new DuplicateSkuException("SKU must be unique: " + productDTO.getSku());
         }
         Product product = new Product();
         product.setName(productDTO.getName());
         product.setSku(productDTO.getSku());
         product.setPrice(productDTO.getPrice());
         product.setStock(productDTO.getStock());
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct;
+        try {
+            savedProduct = productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateSku(e)) {
+                throw e;
+            }
+            throw new DuplicateSkuException("SKU must be unique: " + productDTO.getSku());
+        }
+        skuFilter.put(savedProduct.getSku());
+        lowStockIndex.putAfterCommit(savedProduct.getId(), savedProduct.getStock());
+        lowStockAlertService.publishCreatedAfterCommit(savedProduct.getId(), savedProduct.getStock());
         log.info("Product created successfully with ID: {} and SKU: {}", savedProduct.getId(), savedProduct.getSku());
 
         return savedProduct;
     }
 
+    /**
+     * @param e an exception thrown by an insert into {@code products}
+     * @return true if the insert was rejected by the unique constraint on the
+     *         SKU
+     */
+    static boolean isDuplicateSku(RuntimeException e) {
+        String constraint = Product.SKU_CONSTRAINT.toUpperCase(Locale.ROOT);
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && cause.getMessage() != null
+                    && cause.getMessage().toUpperCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves a product through the product cache.
+     *
+     * @param id the product ID
+     * @return the product
+     * @throws ResourceNotFoundException if the product doesn't exist
+     */
+    public Product getProduct(Long id) {
+        log.info("Fetching product with ID: {}", id);
+        Product product = productCache.getById(id).orElseThrow(() -> {
+            log.error("Product not found for ID: {}", id);
+            return new ResourceNotFoundException("Product not found");
+        });
+        shardedStockService.fillShardedStock(Collections.singletonList(product));
+        return product;
+    }
+
+    /**
+     * @return hit, miss, load and eviction counters of the product cache
+     */
+    public ProductCacheStatsDTO getCacheStats() {
+        return productCache.getStats();
+    }
+
+    /**
+     * @return sizing, memory use and counters of the SKU Bloom filter
+     */
+    public SkuFilterStatsDTO getSkuFilterStats() {
+        return skuFilter.getStats();
+    }
+
     /**
      * Lists all products in the inventory.
      *
@@ -59,23 +155,75 @@ public class ProductService {
     public List<Product> listAll() {
         log.info("Fetching all products from the repository.");
         List<Product> products = productRepository.findAll();
+        shardedStockService.fillShardedStock(products);
         log.info("Total products found: {}", products.size());
         return products;
     }
 
     /**
-     * Retrieves all products with stock below the specified threshold.
+     * Lists one page of products in ascending ID order, seeking on the primary
+     * key so that deep pages cost the same as the first one.
+     *
+     * @param after cursor returned with the previous page, or null for the
+     *              first page
+     * @param limit maximum number of products, or null for the default
+     * @return the page of products and the cursor of the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    public CursorPage<Product> listPage(String after, Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        log.info("Fetching up to {} products after ID {}", pageSize, afterId);
+
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+                PageRequest.of(0, pageSize + 1));
+        String nextCursor = null;
+        if (products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            nextCursor = CursorPage.encode(products.get(pageSize - 1).getId());
+        }
+        shardedStockService.fillShardedStock(products);
+        log.info("Total products found: {}", products.size());
+        return new CursorPage<>(products, nextCursor);
+    }
+
+    /**
+     * Retrieves one page of products whose available stock is below the
+     * specified threshold, in ascending ID order. Answered from the in-memory
+     * low-stock index when it is enabled, otherwise from a query on the stock
+     * index, so the cost depends on the number of matches rather than the
+     * catalog size.
      *
      * @param threshold stock value to compare
-     * @return list of products with stock less than the threshold
+     * @param after     cursor returned with the previous page, or null for the
+     *                  first page
+     * @param limit     maximum number of products, or null for the default
+     * @return the page of products with stock less than the threshold
+     * @throws IllegalArgumentException if the cursor or limit is invalid
      */
-    public List<Product> getLowStockProducts(int threshold) {
-        log.info("Fetching products with stock below threshold: {}", threshold);
-        List<Product> lowStockProducts = productRepository.findAll().stream()
-                .filter(p -> p.getStock() < threshold)
-                .collect(Collectors.toList());
+    public CursorPage<Product> getLowStockProducts(int threshold, String after, Integer limit) {
+        long afterId = CursorPage.decode(after);
+        int pageSize = CursorPage.resolveLimit(limit, defaultPageLimit, maxPageLimit);
+        log.info("Fetching up to {} products with stock below threshold: {} after ID {}", pageSize, threshold,
+                afterId);
+
+        List<Product> lowStockProducts;
+        if (lowStockIndex.isEnabled()) {
+            List<Long> ids = lowStockIndex.findIdsBelow(threshold, afterId, pageSize + 1);
+            lowStockProducts = productRepository.findAllById(ids).stream()
+                    .sorted(Comparator.comparing(Product::getId))
+                    .collect(Collectors.toList());
+        } else {
+            lowStockProducts = productRepository.findLowStock(threshold, afterId, PageRequest.of(0, pageSize + 1));
+        }
+        String nextCursor = null;
+        if (lowStockProducts.size() > pageSize) {
+            lowStockProducts = lowStockProducts.subList(0, pageSize);
+            nextCursor = CursorPage.encode(lowStockProducts.get(pageSize - 1).getId());
+        }
+        shardedStockService.fillShardedStock(lowStockProducts);
         log.info("Low stock products found: {}", lowStockProducts.size());
-        return lowStockProducts;
+        return new CursorPage<>(lowStockProducts, nextCursor);
     }
 
 }
@@ -0,0 +1,177 @@
+package com.inventory.service;
+
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.SkuSalesSummary;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.SkuOrderValue;
+import com.inventory.repository.SkuSalesSummaryRepository;
+import com.inventory.service.archive.OrderArchive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintains the {@code sku_sales_summary} table, which holds the total value
+ * of non-cancelled orders per SKU.
+ *
+ * Order creation and cancellation record their deltas in the order
+ * transaction, so reading the summary costs one row per SKU instead of an
+ * aggregate over all order items. {@link #rebuild()} recomputes the totals
+ * from the orders and corrects any drift.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesSummaryService {
+
+    @Autowired
+    private SkuSalesSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Value("${inventory.sales-summary.rebuild.chunk-size:10000}")
+    private int rebuildChunkSize;
+
+    @Value("${inventory.sales-summary.rebuild.parallelism:4}")
+    private int rebuildParallelism;
+
+    /**
+     * Starts its own transaction, to create summary rows independently of the
+     * order transaction that needs them.
+     */
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the given deltas to the totals of their SKUs. Must be called inside
+     * the transaction of the order change being recorded.
+     *
+     * The rows are updated in SKU order, so concurrent orders touching the
+     * same SKUs cannot deadlock. A SKU without a row yet gets one with a zero
+     * total, committed on its own, and is then updated like any other.
+     *
+     * @param deltas value change per SKU; negative to subtract
+     */
+    public void record(Map<String, BigDecimal> deltas) {
+        for (Map.Entry<String, BigDecimal> delta : new TreeMap<>(deltas).entrySet()) {
+            if (delta.getValue().signum() == 0) {
+                continue;
+            }
+            if (summaryRepository.addValue(delta.getKey(), delta.getValue()) == 0) {
+                createRow(delta.getKey());
+                summaryRepository.addValue(delta.getKey(), delta.getValue());
+            }
+        }
+    }
+
+    /**
+     * Inserts a zero row for a SKU in a separate transaction. Concurrent first
+     * orders of the SKU both get here; the one losing the insert finds the
+     * row committed by the other.
+     */
+    private void createRow(String sku) {
+        try {
+            newTransaction.executeWithoutResult(status -> summaryRepository.insertZero(sku));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Sales summary row of SKU {} was created concurrently", sku);
+        }
+    }
+
+    /**
+     * @return map of SKU to total value of its non-cancelled orders
+     */
+    public Map<String, BigDecimal> getSummary() {
+        long start = System.nanoTime();
+        Map<String, BigDecimal> summary = new HashMap<>();
+        for (SkuSalesSummary row : summaryRepository.findAll()) {
+            summary.put(row.getSku(), row.getTotalValue());
+        }
+        inventoryMetrics.recordSummary(start, true);
+        return summary;
+    }
+
+    /**
+     * Recomputes the totals from the orders and corrects the summary table.
+     *
+     * The order ID range is split into chunks of
+     * {@code inventory.sales-summary.rebuild.chunk-size} that are aggregated
+     * in parallel, and the totals of archived orders are added. Orders created or cancelled while the chunks are being read
+     * may be reported as drift; run it again to confirm a real drift.
+     *
+     * @return the correction applied per SKU, for SKUs that had drifted
+     */
+    public Map<String, BigDecimal> rebuild() {
+        Map<String, BigDecimal> recomputed = recompute();
+        Map<String, BigDecimal> drift = transactionTemplate.execute(status -> {
+            Map<String, BigDecimal> corrections = new TreeMap<>();
+            Map<String, BigDecimal> current = getSummary();
+            recomputed.forEach((sku, total) -> corrections.put(sku,
+                    total.subtract(current.getOrDefault(sku, BigDecimal.ZERO))));
+            current.forEach((sku, total) -> corrections.putIfAbsent(sku, total.negate()));
+            corrections.values().removeIf(delta -> delta.signum() == 0);
+            record(corrections);
+            return corrections;
+        });
+        log.info("Sales summary rebuilt for {} SKUs, {} had drifted", recomputed.size(), drift.size());
+        return drift;
+    }
+
+    private Map<String, BigDecimal> recompute() {
+        Map<String, BigDecimal> totals = new HashMap<>(orderArchive.sumOrderValueBySku(
+                EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED)), null, null));
+        Long minId = orderRepository.findMinId();
+        Long maxId = orderRepository.findMaxId();
+        if (minId == null) {
+            return totals;
+        }
+        log.info("Recomputing sales summary over order IDs {} to {}", minId, maxId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism);
+        try {
+            List<CompletableFuture<List<SkuOrderValue>>> chunks = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += rebuildChunkSize) {
+                long fromId = from;
+                long toId = Math.min(maxId, from + rebuildChunkSize - 1);
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> orderRepository.sumOrderValueBySkuInIdRange(fromId, toId, OrderStatus.CANCELLED),
+                        executor));
+            }
+            for (CompletableFuture<List<SkuOrderValue>> chunk : chunks) {
+                for (SkuOrderValue value : chunk.join()) {
+                    totals.merge(value.getSku(), value.getTotalValue(), BigDecimal::add);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,155 @@
+package com.inventory.service;
+
+import com.inventory.dto.SkuFilterStatsDTO;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of the SKUs stored in the products table.
+ *
+ * A "not present" answer is definite, so product creation and import can
+ * skip the duplicate-SKU SELECT for new SKUs; a "might be present" answer
+ * falls back to the lookup. SKUs are added before the inserting transaction
+ * commits, so the filter may hold SKUs of rolled back inserts (extra false
+ * positives) but never misses a stored one. The unique constraint on
+ * {@code products.sku} remains the final guard.
+ *
+ * The filter is sized for {@code inventory.sku-filter.expected-insertions}
+ * SKUs at {@code inventory.sku-filter.false-positive-rate}; beyond that many
+ * SKUs the false-positive rate grows, as reported by {@link #getStats()}.
+ */
+@Slf4j
+@Component
+public class SkuBloomFilter {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.sku-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${inventory.sku-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private long bitCount;
+
+    private int hashFunctions;
+
+    private AtomicLongArray bits;
+
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong definiteMisses = new AtomicLong();
+
+    /**
+     * Sizes the filter and loads it from a streaming scan of the product SKUs.
+     */
+    @PostConstruct
+    public void load() {
+        allocate();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> skus = productRepository.streamAllSkus()) {
+                skus.forEach(this::put);
+            }
+        });
+        log.info("SKU filter loaded with {} SKUs ({} bits, {} hash functions)", insertions.get(), bitCount,
+                hashFunctions);
+    }
+
+    void allocate() {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalStateException("Invalid SKU filter sizing");
+        }
+        double ln2 = Math.log(2);
+        bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+        bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        insertions.set(0);
+    }
+
+    /**
+     * Records a stored SKU.
+     *
+     * @param sku the SKU
+     */
+    public void put(String sku) {
+        long[] hashes = hash(sku);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = index(hashes, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @param sku the SKU
+     * @return false if the SKU is definitely not stored; true if it might be
+     */
+    public boolean mightContain(String sku) {
+        queries.incrementAndGet();
+        long[] hashes = hash(sku);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = index(hashes, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                definiteMisses.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return sizing, memory use, estimated false-positive rate and counters
+     */
+    public SkuFilterStatsDTO getStats() {
+        long n = insertions.get();
+        double estimatedRate = Math.pow(1 - Math.exp(-(double) hashFunctions * n / bitCount), hashFunctions);
+        return new SkuFilterStatsDTO(expectedInsertions, falsePositiveRate, estimatedRate, n, bitCount,
+                hashFunctions, bits.length() * 8L, queries.get(), definiteMisses.get());
+    }
+
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+    }
+
+    /**
+     * Two independent 64-bit FNV-1a style hashes of the SKU, combined by
+     * double hashing into the k bit positions.
+     */
+    private static long[] hash(String sku) {
+        byte[] bytes = sku.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x84222325cbf29ce4L;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+            h2 = (h2 ^ (b & 0xff)) * 0x9e3779b97f4a7c15L;
+        }
+        return new long[] { mix(h1), mix(h2) | 1 };
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,226 @@
+package com.inventory.service.archive;
+
+import com.inventory.entity.OrderStatus;
+import com.inventory.repository.OrderLineView;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable file of archived order lines stored column by column.
+ *
+ * A segment holds one row per order line (one row with product ID -1 for an
+ * order without items) and, after a fixed header, one contiguous array per
+ * column: order ID, order date, status, product ID, quantity and unit price.
+ * Scans read only the columns they need straight from the memory-mapped
+ * file. The header keeps the order date range of the segment, so a scan
+ * bounded by date skips segments outside it without touching their columns.
+ *
+ * Order dates are stored as microseconds since 1970-01-01T00:00 without a
+ * zone, and prices as unscaled values with {@value #PRICE_SCALE} decimals.
+ */
+public final class ArchiveSegment {
+
+    static final int PRICE_SCALE = 2;
+
+    private static final int MAGIC = 0x4F524441;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 4 * Long.BYTES;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final long minOrderDate;
+    private final long maxOrderDate;
+
+    private final int orderIdOffset;
+    private final int orderDateOffset;
+    private final int statusOffset;
+    private final int productIdOffset;
+    private final int quantityOffset;
+    private final int priceOffset;
+
+    private ArchiveSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(12) != PRICE_SCALE) {
+            throw new IOException("Not an order archive segment: " + file);
+        }
+        rows = buffer.getInt(8);
+        minOrderDate = buffer.getLong(32);
+        maxOrderDate = buffer.getLong(40);
+        orderIdOffset = HEADER_BYTES;
+        orderDateOffset = orderIdOffset + rows * Long.BYTES;
+        statusOffset = orderDateOffset + rows * Long.BYTES;
+        productIdOffset = statusOffset + padded(rows);
+        quantityOffset = productIdOffset + rows * Long.BYTES;
+        priceOffset = quantityOffset + rows * Integer.BYTES;
+        if (buffer.capacity() != priceOffset + rows * Long.BYTES) {
+            throw new IOException("Truncated order archive segment: " + file);
+        }
+    }
+
+    /**
+     * Writes order lines to a new segment file and forces it to the storage
+     * device.
+     *
+     * @param file  the file to create; must not exist
+     * @param lines lines of the archived orders, as read by
+     *              {@code OrderRepository.findLinesByOrderIds}
+     * @return the segment, mapped for reading
+     * @throws IOException if the file cannot be written
+     */
+    public static ArchiveSegment write(Path file, List<? extends OrderLineView> lines) throws IOException {
+        int rows = lines.size();
+        long minDate = Long.MAX_VALUE;
+        long maxDate = Long.MIN_VALUE;
+        long minOrderId = Long.MAX_VALUE;
+        long maxOrderId = Long.MIN_VALUE;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + rows * (4 * Long.BYTES + Integer.BYTES)
+                + padded(rows));
+        buffer.position(HEADER_BYTES);
+        for (OrderLineView line : lines) {
+            buffer.putLong(line.getOrderId());
+            minOrderId = Math.min(minOrderId, line.getOrderId());
+            maxOrderId = Math.max(maxOrderId, line.getOrderId());
+        }
+        for (OrderLineView line : lines) {
+            long date = toMicros(line.getOrderDate());
+            buffer.putLong(date);
+            minDate = Math.min(minDate, date);
+            maxDate = Math.max(maxDate, date);
+        }
+        for (OrderLineView line : lines) {
+            buffer.put((byte) line.getStatus().ordinal());
+        }
+        buffer.position(buffer.position() + padded(rows) - rows);
+        for (OrderLineView line : lines) {
+            buffer.putLong(line.getItemId() == null ? -1 : line.getProductId());
+        }
+        for (OrderLineView line : lines) {
+            buffer.putInt(line.getItemId() == null ? 0 : line.getQuantity());
+        }
+        for (OrderLineView line : lines) {
+            buffer.putLong(line.getItemId() == null ? 0 : unscaled(line.getPrice()));
+        }
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, rows).putInt(12, PRICE_SCALE)
+                .putLong(16, minOrderId).putLong(24, maxOrderId).putLong(32, minDate).putLong(40, maxDate);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        return open(file);
+    }
+
+    /**
+     * Maps an existing segment file.
+     *
+     * @param file the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a complete
+     *                     segment
+     */
+    public static ArchiveSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ArchiveSegment(file, buffer);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the distinct IDs of the orders in the segment, ascending
+     */
+    public long[] getOrderIds() {
+        return IntStream.range(0, rows)
+                .mapToLong(row -> buffer.getLong(orderIdOffset + row * Long.BYTES))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    /**
+     * Adds price times quantity of the matching rows to the totals.
+     *
+     * @param statusMask bit {@code 1 << ordinal} set for each included status
+     * @param fromMicros inclusive lower bound of the order date
+     * @param toMicros   exclusive upper bound of the order date
+     * @param totals     unscaled value per product ID, updated in place
+     */
+    void sumValueByProduct(int statusMask, long fromMicros, long toMicros, Map<Long, Long> totals) {
+        if (maxOrderDate < fromMicros || minOrderDate >= toMicros) {
+            return;
+        }
+        for (int row = 0; row < rows; row++) {
+            if ((statusMask & (1 << buffer.get(statusOffset + row))) == 0) {
+                continue;
+            }
+            long date = buffer.getLong(orderDateOffset + row * Long.BYTES);
+            if (date < fromMicros || date >= toMicros) {
+                continue;
+            }
+            long productId = buffer.getLong(productIdOffset + row * Long.BYTES);
+            if (productId < 0) {
+                continue;
+            }
+            long value = buffer.getLong(priceOffset + row * Long.BYTES)
+                    * buffer.getInt(quantityOffset + row * Integer.BYTES);
+            totals.merge(productId, value, Long::sum);
+        }
+    }
+
+    /**
+     * @param statuses the statuses to include
+     * @return the status mask for {@link #sumValueByProduct}
+     */
+    static int statusMask(Collection<OrderStatus> statuses) {
+        int mask = 0;
+        for (OrderStatus status : statuses) {
+            mask |= 1 << status.ordinal();
+        }
+        return mask;
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    static BigDecimal toPrice(long unscaled) {
+        return BigDecimal.valueOf(unscaled, PRICE_SCALE);
+    }
+
+    private static long unscaled(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return the size of the status column, rounded up so the columns after
+     *         it stay aligned to 8 bytes
+     */
+    private static int padded(int rows) {
+        return (rows + 7) & ~7;
+    }
+}
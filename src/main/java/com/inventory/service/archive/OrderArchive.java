@@ -0,0 +1,243 @@
+package com.inventory.service.archive;
+
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderLineView;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves old orders in a final status out of the {@code orders} and
+ * {@code order_items} tables into columnar {@link ArchiveSegment} files, and
+ * answers order value queries over them.
+ *
+ * Every {@code inventory.archive.interval-millis} the archiver selects orders
+ * in a final status placed more than {@code inventory.archive.retention-days}
+ * ago, up to {@code inventory.archive.segment-orders} per segment. Their lines
+ * are written to a {@code .pending} segment file first; the orders are then
+ * deleted in one transaction and the file is renamed into place. A pending
+ * file found on startup is kept if its orders are gone from the tables and
+ * discarded otherwise, so a crash never loses or duplicates an order.
+ *
+ * Unit prices are archived as they are when the order is archived. Archived
+ * orders still count in the sales summary table but are no longer listed,
+ * exported or returned by the order endpoints.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderArchive {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".col";
+    private static final String PENDING = ".pending";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.archive.dir:data/archive}")
+    private String dir;
+
+    @Value("${inventory.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${inventory.archive.segment-orders:10000}")
+    private int segmentOrders;
+
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+    private Path directory;
+
+    private long nextSegment = 1;
+
+    /**
+     * Maps the existing segments and settles pending ones left by a crash.
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+        for (Path file : list(PENDING)) {
+            recover(file);
+        }
+        for (Path file : list(SUFFIX)) {
+            segments.add(ArchiveSegment.open(file));
+            nextSegment = Math.max(nextSegment, segmentNumber(file) + 1);
+        }
+        log.info("Order archive opened in {} with {} segments", directory, segments.size());
+    }
+
+    /**
+     * Archives every order in a final status older than the retention window.
+     *
+     * @return the number of archived orders
+     */
+    @Scheduled(fixedDelayString = "${inventory.archive.interval-millis:3600000}",
+            initialDelayString = "${inventory.archive.interval-millis:3600000}")
+    public synchronized int archive() {
+        if (!enabled) {
+            return 0;
+        }
+        Set<OrderStatus> finalStatuses = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.isFinal()) {
+                finalStatuses.add(status);
+            }
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        try {
+            List<Long> orderIds;
+            do {
+                orderIds = orderRepository.findIdsByStatusInAndOrderDateBefore(finalStatuses, cutoff,
+                        PageRequest.of(0, segmentOrders));
+                if (!orderIds.isEmpty()) {
+                    archiveSegment(orderIds, finalStatuses);
+                    archived += orderIds.size();
+                }
+            } while (orderIds.size() == segmentOrders);
+        } catch (IOException | RuntimeException e) {
+            log.error("Archiving orders failed after {} orders, will retry: {}", archived, e.getMessage(), e);
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders placed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private void archiveSegment(List<Long> orderIds, Set<OrderStatus> finalStatuses) throws IOException {
+        List<OrderLineView> lines = orderRepository.findLinesByOrderIds(orderIds);
+        Path segmentFile = directory.resolve(String.format("%s%08d%s", PREFIX, nextSegment, SUFFIX));
+        Path pending = directory.resolve(segmentFile.getFileName() + PENDING);
+        ArchiveSegment.write(pending, lines);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.deleteItemsByOrderIds(orderIds);
+                if (orderRepository.deleteByIdsAndStatusIn(orderIds, finalStatuses) != orderIds.size()) {
+                    throw new IllegalStateException("Orders changed while being archived");
+                }
+            });
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(pending);
+            throw e;
+        }
+        Files.move(pending, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+        segments.add(ArchiveSegment.open(segmentFile));
+        nextSegment++;
+    }
+
+    /**
+     * Keeps a pending segment whose orders were deleted, discards it if the
+     * deleting transaction never committed.
+     */
+    private void recover(Path pending) throws IOException {
+        ArchiveSegment segment;
+        try {
+            segment = ArchiveSegment.open(pending);
+        } catch (IOException e) {
+            log.warn("Discarding incomplete archive segment {}: {}", pending, e.getMessage());
+            Files.delete(pending);
+            return;
+        }
+        List<Long> orderIds = Arrays.stream(segment.getOrderIds()).boxed().collect(Collectors.toList());
+        if (orderRepository.countByIds(orderIds) == 0) {
+            Path file = pending.resolveSibling(pending.getFileName().toString().replace(PENDING, ""));
+            Files.move(pending, file, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Recovered archive segment {}", file);
+        } else {
+            Files.delete(pending);
+            log.info("Discarded archive segment {} whose orders were not deleted", pending);
+        }
+    }
+
+    /**
+     * Sums price times quantity per product SKU over the archived orders,
+     * scanning the segments in parallel. Each filter is ignored when null;
+     * {@code from} is inclusive and {@code to} exclusive.
+     *
+     * @param statuses only count orders in these statuses
+     * @param from     only count orders placed at or after this time
+     * @param to       only count orders placed before this time
+     * @return map of SKU to total value; empty if the archive is disabled
+     */
+    public Map<String, BigDecimal> sumOrderValueBySku(Collection<OrderStatus> statuses, LocalDateTime from,
+            LocalDateTime to) {
+        if (segments.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        int statusMask = ArchiveSegment.statusMask(statuses);
+        long fromMicros = from == null ? Long.MIN_VALUE : ArchiveSegment.toMicros(from);
+        long toMicros = to == null ? Long.MAX_VALUE : ArchiveSegment.toMicros(to);
+        Map<Long, Long> totals = segments.parallelStream()
+                .map(segment -> {
+                    Map<Long, Long> partial = new HashMap<>();
+                    segment.sumValueByProduct(statusMask, fromMicros, toMicros, partial);
+                    return partial;
+                })
+                .reduce(new HashMap<>(), (left, right) -> {
+                    Map<Long, Long> merged = new HashMap<>(left);
+                    right.forEach((productId, value) -> merged.merge(productId, value, Long::sum));
+                    return merged;
+                });
+
+        Map<String, BigDecimal> bySku = new HashMap<>();
+        for (Product product : productRepository.findAllById(totals.keySet())) {
+            bySku.merge(product.getSku(), ArchiveSegment.toPrice(totals.get(product.getId())), BigDecimal::add);
+        }
+        return bySku;
+    }
+
+    /**
+     * @return the number of segments and archived order lines
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("segments", (long) segments.size());
+        stats.put("rows", segments.stream().mapToLong(ArchiveSegment::getRows).sum());
+        return stats;
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(suffix);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.service.audit;
+
+/**
+ * Events written to the audit log, with the columns of their lines after the
+ * timestamp and the event type.
+ *
+ * ORDER_CREATED - order ID, number of lines.
+ * ORDER_LINE - order ID, product ID, quantity.
+ * ORDER_STATUS_CHANGED - order ID, previous status, new status.
+ * STOCK_RESTORED - product ID, quantity returned to stock.
+ */
+public enum AuditEventType {
+    ORDER_CREATED, ORDER_LINE, ORDER_STATUS_CHANGED, STOCK_RESTORED
+}
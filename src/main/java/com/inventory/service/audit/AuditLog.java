@@ -0,0 +1,463 @@
+package com.inventory.service.audit;
+
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderItem;
+import com.inventory.entity.OrderStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit trail of order and stock events, kept apart from the
+ * diagnostic log.
+ *
+ * Events are copied into the preallocated slots of a ring buffer and written
+ * by a single background thread, one tab-separated line per event, so
+ * recording costs a sequence claim and a few field writes on the request
+ * thread and allocates nothing. What happens when the buffer is full is set by
+ * {@code inventory.audit.overflow}. Events of a transaction are collected in
+ * one {@link PendingEvents} buffer, bound to the transaction and registered as
+ * its only audit synchronization on the first event, and recorded once it
+ * commits; each deferred event adds one list entry to that buffer.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.audit.file:logs/order-audit.log}")
+    private String file;
+
+    @Value("${inventory.audit.capacity:65536}")
+    private int capacity;
+
+    @Value("${inventory.audit.overflow:DROP}")
+    private AuditOverflowPolicy overflow;
+
+    @Value("${inventory.audit.sample-rate:10}")
+    private int sampleRate;
+
+    private Slot[] slots;
+
+    private int mask;
+
+    /** Sequence held by each slot once its event is complete. */
+    private AtomicLongArray published;
+
+    /** Next sequence to hand out. */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /** Next sequence to write; the slots of lower sequences are free. */
+    private volatile long consumed;
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            log.info("Audit log disabled");
+            return;
+        }
+        if (sampleRate < 1) {
+            throw new IllegalStateException("inventory.audit.sample-rate must be at least 1, was " + sampleRate);
+        }
+        allocate();
+        Path path = Paths.get(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        FunctionCounter.builder("inventory.audit.events", written, AtomicLong::get).tag("outcome", "written")
+                .description("Audit events by outcome").register(meterRegistry);
+        FunctionCounter.builder("inventory.audit.events", dropped, AtomicLong::get).tag("outcome", "dropped")
+                .description("Audit events by outcome").register(meterRegistry);
+        FunctionCounter.builder("inventory.audit.events", sampledOut, AtomicLong::get).tag("outcome", "sampled")
+                .description("Audit events by outcome").register(meterRegistry);
+        Gauge.builder("inventory.audit.backlog", this, AuditLog::getBacklog)
+                .description("Audit events waiting to be written").register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(() -> drain(writer), "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Audit log writing to {} through a ring buffer of {} events, overflow policy {}", path,
+                slots.length, overflow);
+    }
+
+    /**
+     * Allocates the ring buffer, rounding the capacity up to a power of two.
+     */
+    void allocate() {
+        if (slots != null) {
+            return;
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new Slot[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Records a created order and its lines once the current transaction
+     * commits.
+     *
+     * @param order the saved order with its items
+     */
+    public void orderCreatedAfterCommit(Order order) {
+        if (!enabled) {
+            return;
+        }
+        PendingEvents pending = pending();
+        if (pending == null) {
+            recordCreated(order);
+        } else {
+            pending.events.add(order);
+        }
+    }
+
+    /**
+     * Records a status change once the current transaction commits.
+     *
+     * @param orderId  the order ID
+     * @param previous the status before the change
+     * @param current  the new status
+     */
+    public void statusChangedAfterCommit(long orderId, OrderStatus previous, OrderStatus current) {
+        if (!enabled) {
+            return;
+        }
+        PendingEvents pending = pending();
+        if (pending == null) {
+            record(AuditEventType.ORDER_STATUS_CHANGED, orderId, -1, 0, previous, current);
+        } else {
+            pending.events.add(new StatusChange(orderId, previous, current));
+        }
+    }
+
+    /**
+     * Records the status changes of many orders once the current transaction
+     * commits.
+     *
+     * @param previousById the status before the change keyed by order ID
+     * @param current      the new status
+     */
+    public void statusesChangedAfterCommit(Map<Long, OrderStatus> previousById, OrderStatus current) {
+        if (!enabled) {
+            return;
+        }
+        PendingEvents pending = pending();
+        if (pending == null) {
+            recordStatusChanges(previousById, current);
+        } else {
+            pending.events.add(new StatusChanges(previousById, current));
+        }
+    }
+
+    /**
+     * Records stock returned to a product.
+     *
+     * @param productId the product ID
+     * @param quantity  units returned
+     */
+    public void stockRestored(long productId, int quantity) {
+        record(AuditEventType.STOCK_RESTORED, -1, productId, quantity, null, null);
+    }
+
+    private void recordCreated(Order order) {
+        long orderId = order.getId();
+        record(AuditEventType.ORDER_CREATED, orderId, -1, order.getItems().size(), null, null);
+        for (OrderItem item : order.getItems()) {
+            record(AuditEventType.ORDER_LINE, orderId, item.getProduct().getId(), item.getQuantity(), null, null);
+        }
+    }
+
+    private void recordStatusChanges(Map<Long, OrderStatus> previousById, OrderStatus current) {
+        for (Map.Entry<Long, OrderStatus> entry : previousById.entrySet()) {
+            record(AuditEventType.ORDER_STATUS_CHANGED, entry.getKey(), -1, 0, entry.getValue(), current);
+        }
+    }
+
+    /**
+     * Copies an event into the ring buffer. Unused IDs are -1 and unused
+     * statuses null.
+     */
+    public void record(AuditEventType type, long orderId, long productId, int quantity, OrderStatus previous,
+            OrderStatus current) {
+        if (slots == null) {
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        int index = (int) (sequence & mask);
+        Slot slot = slots[index];
+        slot.timestamp = System.currentTimeMillis();
+        slot.type = type;
+        slot.orderId = orderId;
+        slot.productId = productId;
+        slot.quantity = quantity;
+        slot.previous = previous;
+        slot.current = current;
+        published.lazySet(index, sequence);
+    }
+
+    /**
+     * @return the claimed sequence, or -1 if the event is discarded
+     */
+    private long claim() {
+        while (true) {
+            long sequence = claimed.get();
+            long backlog = sequence - consumed;
+            if (backlog >= slots.length) {
+                if (overflow == AuditOverflowPolicy.BLOCK && running) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    continue;
+                }
+                dropped.incrementAndGet();
+                return -1;
+            }
+            if (overflow == AuditOverflowPolicy.SAMPLE && backlog >= slots.length / 2
+                    && sampleCounter.getAndIncrement() % sampleRate != 0) {
+                sampledOut.incrementAndGet();
+                return -1;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void drain(Writer writer) {
+        StringBuilder line = new StringBuilder(128);
+        long next = consumed;
+        boolean unflushed = false;
+        try {
+            while (running || next < claimed.get()) {
+                int index = (int) (next & mask);
+                if (published.get(index) != next) {
+                    if (next < claimed.get()) {
+                        // Claimed but still being filled in
+                        Thread.yield();
+                    } else {
+                        if (unflushed) {
+                            writer.flush();
+                            unflushed = false;
+                        }
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                format(slots[index], line);
+                writer.append(line);
+                unflushed = true;
+                next++;
+                consumed = next;
+                written.incrementAndGet();
+            }
+        } catch (IOException e) {
+            log.error("Writing the audit log failed, further events are dropped: {}", e.getMessage(), e);
+            running = false;
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Closing the audit log failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    static void format(Slot slot, StringBuilder line) {
+        line.setLength(0);
+        line.append(slot.timestamp).append('\t').append(slot.type.name());
+        switch (slot.type) {
+        case ORDER_CREATED:
+            line.append('\t').append(slot.orderId).append('\t').append(slot.quantity);
+            break;
+        case ORDER_LINE:
+            line.append('\t').append(slot.orderId).append('\t').append(slot.productId).append('\t')
+                    .append(slot.quantity);
+            break;
+        case ORDER_STATUS_CHANGED:
+            line.append('\t').append(slot.orderId).append('\t').append(slot.previous.name()).append('\t')
+                    .append(slot.current.name());
+            break;
+        case STOCK_RESTORED:
+            line.append('\t').append(slot.productId).append('\t').append(slot.quantity);
+            break;
+        default:
+            break;
+        }
+        line.append('\n');
+    }
+
+    /**
+     * @return events recorded but not yet written
+     */
+    public long getBacklog() {
+        return claimed.get() - consumed;
+    }
+
+    /**
+     * @return events discarded because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return events discarded by sampling
+     */
+    public long getSampledOut() {
+        return sampledOut.get();
+    }
+
+    /**
+     * Writes the remaining events and closes the file.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * @return the event buffer of the current transaction, bound and
+     *         registered on first use, or null outside a transaction
+     */
+    private PendingEvents pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Events deferred until the transaction commits, in the order they
+     * happened: created {@link Order}s, {@link StatusChange}s and
+     * {@link StatusChanges}. Unbound while the transaction is suspended, so an
+     * inner transaction gets a buffer of its own.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+        private final List<Object> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(AuditLog.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AuditLog.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            for (int i = 0; i < events.size(); i++) {
+                Object event = events.get(i);
+                if (event instanceof Order) {
+                    recordCreated((Order) event);
+                } else if (event instanceof StatusChange) {
+                    StatusChange change = (StatusChange) event;
+                    record(AuditEventType.ORDER_STATUS_CHANGED, change.orderId, -1, 0, change.previous,
+                            change.current);
+                } else {
+                    StatusChanges changes = (StatusChanges) event;
+                    recordStatusChanges(changes.previousById, changes.current);
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AuditLog.this);
+        }
+    }
+
+    private static final class StatusChange {
+        private final long orderId;
+        private final OrderStatus previous;
+        private final OrderStatus current;
+
+        private StatusChange(long orderId, OrderStatus previous, OrderStatus current) {
+            this.orderId = orderId;
+            this.previous = previous;
+            this.current = current;
+        }
+    }
+
+    private static final class StatusChanges {
+        private final Map<Long, OrderStatus> previousById;
+        private final OrderStatus current;
+
+        private StatusChanges(Map<Long, OrderStatus> previousById, OrderStatus current) {
+            this.previousById = previousById;
+            this.current = current;
+        }
+    }
+
+    /** One preallocated event; written by its claiming thread, read by the writer. */
+    static final class Slot {
+        long timestamp;
+        AuditEventType type;
+        long orderId;
+        long productId;
+        int quantity;
+        OrderStatus previous;
+        OrderStatus current;
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.service.audit;
+
+/**
+ * What the audit log does with an event when its ring buffer is full.
+ *
+ * DROP - discard the event and count it.
+ * BLOCK - wait on the request thread until the writer frees a slot.
+ * SAMPLE - once the buffer is half full keep only one event in
+ * {@code inventory.audit.sample-rate}; discard events while it is full.
+ */
+public enum AuditOverflowPolicy {
+    DROP, BLOCK, SAMPLE
+}
@@ -0,0 +1,56 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.InventoryMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Common lookup and error handling shared by the stock reservation strategies.
+ */
+@Slf4j
+public abstract class AbstractStockReservationStrategy implements StockReservationStrategy {
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected InventoryMetrics inventoryMetrics;
+
+    /**
+     * Loads the given products with a single IN query.
+     *
+     * @param ids product IDs to load
+     * @return the products keyed by ID
+     * @throws ResourceNotFoundException if any product doesn't exist
+     */
+    protected Map<Long, Product> loadProducts(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                throw productNotFound(id);
+            }
+        }
+        return products;
+    }
+
+    protected ResourceNotFoundException productNotFound(Long productId) {
+        log.error("Product not found for ID: {}", productId);
+        return new ResourceNotFoundException("Product not found");
+    }
+
+    protected InsufficientStockException insufficientStock(String sku, int available, int requested) {
+        log.warn("Insufficient stock for product: {} (Available: {}, Requested: {})", sku, available, requested);
+        return new InsufficientStockException("Insufficient stock for product: " + sku);
+    }
+}
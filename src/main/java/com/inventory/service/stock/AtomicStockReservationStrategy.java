@@ -0,0 +1,40 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Reserves stock with one conditional
+ * {@code UPDATE products SET stock = stock - :q WHERE id = :id AND stock >= :q}
+ * per product.
+ *
+ * The database evaluates the stock check and the decrement atomically, so
+ * there is no read-modify-write window and concurrent orders never abort on a
+ * version conflict; they only queue briefly on the row lock. The products are
+ * read once afterwards to build the order items.
+ */
+@Slf4j
+@Component
+public class AtomicStockReservationStrategy extends AbstractStockReservationStrategy {
+
+    @Override
+    public StockReservationMode getMode() {
+        return StockReservationMode.ATOMIC;
+    }
+
+    @Override
+    public Map<Long, Product> reserve(SortedMap<Long, Integer> requestedQuantities) {
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            if (productRepository.decrementStock(entry.getKey(), entry.getValue()) == 0) {
+                Product product = productRepository.findById(entry.getKey())
+                        .orElseThrow(() -> productNotFound(entry.getKey()));
+                throw insufficientStock(product.getSku(), product.getStock(), entry.getValue());
+            }
+        }
+        return loadProducts(requestedQuantities.keySet());
+    }
+}
@@ -0,0 +1,348 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.InventoryEngineCheckpoint;
+import com.inventory.entity.Product;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.InventoryEngineCheckpointRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockSnapshot;
+import com.inventory.service.ProductCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock engine with write-behind persistence.
+ *
+ * When {@code inventory.engine.enabled} is set, product availability is held
+ * in one {@link AtomicInteger} per product, loaded from the products table at
+ * startup; products created later are loaded on first use. Orders reserve
+ * against the counters with compare-and-set loops, so accepting an order
+ * takes no database lock on the products rows.
+ *
+ * Decrements are appended to a local {@link StockJournal} before the order
+ * transaction commits and coalesced per product. Concurrent commits append
+ * in parallel and share one force of the journal (group commit). A background
+ * writer applies the coalesced deltas to the products table in one
+ * transaction, together with the journal checkpoint, so nothing is lost or
+ * applied twice across a crash. The products table therefore lags the engine
+ * by up to one flush interval.
+ *
+ * Because the journal is written before the database commit, a crash between
+ * the two replays the decrement of an order that was never committed: its
+ * stock stays reserved until corrected by hand. The engine accepts
+ * under-reporting stock in that window rather than ever selling stock that
+ * the journal doesn't hold. A database commit that fails without a crash
+ * journals a compensating record instead.
+ *
+ * Restored stock of cancelled orders is written to the products table first,
+ * by {@link StockRestorationService}, and only then added to the counters.
+ */
+@Slf4j
+@Component
+public class InventoryEngine {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryEngineCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${inventory.engine.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.engine.journal-dir:data/engine}")
+    private String journalDirectory;
+
+    @Value("${inventory.engine.journal-force:true}")
+    private boolean journalForce;
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+
+    /** Journaled deltas not yet written to the database. */
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Shared by commits appending to the journal and merging into pending,
+     * exclusive while the writer snapshots pending and rotates the journal,
+     * so a rotated file holds exactly the records of the snapshot.
+     */
+    private final ReadWriteLock rotation = new ReentrantReadWriteLock();
+
+    private StockJournal journal;
+
+    /**
+     * @return true if orders reserve stock through the engine
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replays the journal into the database and loads every product's stock.
+     *
+     * @throws UncheckedIOException if the journal cannot be opened
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            journal = new StockJournal(Paths.get(journalDirectory), journalForce);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open stock journal in " + journalDirectory, e);
+        }
+
+        long checkpoint = checkpointRepository.findById(InventoryEngineCheckpoint.SINGLETON_ID)
+                .map(InventoryEngineCheckpoint::getLastSequence)
+                .orElse(0L);
+        Map<Long, Long> unflushed = journal.replay(checkpoint);
+        journal.advanceTo(checkpoint);
+        if (!unflushed.isEmpty()) {
+            log.info("Replaying {} unflushed stock deltas from the journal", unflushed.size());
+            write(unflushed, journal.getLastSequence());
+        }
+        journal.reset();
+
+        for (Product product : productRepository.findAll()) {
+            available.put(product.getId(), new AtomicInteger(product.getStock()));
+        }
+        log.info("Inventory engine loaded stock of {} products", available.size());
+    }
+
+    /**
+     * @param productId the product ID
+     * @return the stock currently available in the engine, or empty if the
+     *         product is unknown
+     */
+    public OptionalInt getAvailable(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of(counter.get());
+    }
+
+    /**
+     * Reserves the requested quantities against the in-memory counters. Must
+     * be called inside the order transaction: the reservation is journaled
+     * when the transaction commits and released if it rolls back.
+     *
+     * @param requestedQuantities merged quantities keyed by product ID, in
+     *                            product-ID order
+     * @return the stock left by this reservation keyed by product ID
+     * @throws ResourceNotFoundException  if any product doesn't exist
+     * @throws InsufficientStockException if any product stock is insufficient
+     */
+    public Map<Long, Integer> reserve(SortedMap<Long, Integer> requestedQuantities) {
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        Map<Long, Integer> remaining = new HashMap<>();
+        try {
+            for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+                remaining.put(entry.getKey(), decrement(entry.getKey(), entry.getValue()));
+                taken.put(entry.getKey(), -entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            release(taken);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commit(taken);
+            return remaining;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                long sequence = append(taken);
+                journaled = true;
+                journal.sync(sequence);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(taken);
+                    if (journaled) {
+                        Map<Long, Integer> compensation = new HashMap<>();
+                        taken.forEach((productId, delta) -> compensation.put(productId, -delta));
+                        commit(compensation);
+                    }
+                }
+            }
+        });
+        return remaining;
+    }
+
+    /**
+     * @param productIds product IDs
+     * @return the given products whose stock is held in a counter
+     */
+    public Set<Long> findLoaded(Collection<Long> productIds) {
+        Set<Long> loaded = new HashSet<>();
+        for (Long productId : productIds) {
+            if (available.containsKey(productId)) {
+                loaded.add(productId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Adds stock that was already committed to the products table, e.g.
+     * returned from cancelled orders, to the counters. The table write is the
+     * durable record, so nothing is journaled. Only pass products found by
+     * {@link #findLoaded(Collection)} before the write: a counter loaded after
+     * it read the stock from the table and already holds it.
+     *
+     * @param quantities quantities keyed by product ID
+     * @return the stock after the addition keyed by product ID
+     */
+    public Map<Long, Integer> addRestored(Map<Long, Integer> quantities) {
+        Map<Long, Integer> current = new HashMap<>();
+        quantities.forEach((productId, quantity) -> current.put(productId,
+                available.get(productId).addAndGet(quantity)));
+        return current;
+    }
+
+    /**
+     * @return the stock left after the decrement
+     */
+    private int decrement(Long productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                log.warn("Insufficient stock for product ID: {} (Available: {}, Requested: {})", productId,
+                        current, quantity);
+                String sku = productRepository.findStockSnapshots(Collections.singleton(productId)).stream()
+                        .findFirst().map(StockSnapshot::getSku).orElse(String.valueOf(productId));
+                throw new InsufficientStockException("Insufficient stock for product: " + sku);
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return current - quantity;
+            }
+        }
+    }
+
+    /**
+     * Finds the counter of a product, loading products that were inserted
+     * behind the engine's back (e.g. by a bulk import) on first use.
+     */
+    private AtomicInteger counter(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        StockSnapshot snapshot = productRepository.findStockSnapshots(Collections.singleton(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.error("Product not found for ID: {}", productId);
+                    return new ResourceNotFoundException("Product not found");
+                });
+        return available.computeIfAbsent(productId, id -> new AtomicInteger(snapshot.getStock()));
+    }
+
+    private void release(Map<Long, Integer> taken) {
+        taken.forEach((productId, delta) -> available.get(productId).addAndGet(-delta));
+    }
+
+    private void commit(Map<Long, Integer> deltas) {
+        journal.sync(append(deltas));
+    }
+
+    /**
+     * Journals deltas for the writer without waiting for the storage device.
+     *
+     * @return the sequence number of the journal record
+     */
+    private long append(Map<Long, Integer> deltas) {
+        rotation.readLock().lock();
+        try {
+            long sequence = journal.append(deltas);
+            deltas.forEach((productId, delta) -> pending.merge(productId, (long) delta, Long::sum));
+            return sequence;
+        } finally {
+            rotation.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the coalesced deltas to the products table.
+     */
+    @Scheduled(fixedDelayString = "${inventory.engine.flush-interval-millis:200}")
+    public synchronized void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Long> batch;
+        long upTo;
+        rotation.writeLock().lock();
+        try {
+            pending.values().removeIf(delta -> delta == 0);
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(pending);
+            pending.clear();
+            upTo = journal.rotate();
+        } finally {
+            rotation.writeLock().unlock();
+        }
+
+        try {
+            write(batch, upTo);
+            journal.deleteRotatedUpTo(upTo);
+            log.debug("Flushed stock deltas of {} products up to journal sequence {}", batch.size(), upTo);
+        } catch (RuntimeException e) {
+            log.error("Flushing stock deltas failed, will retry: {}", e.getMessage(), e);
+            batch.forEach((productId, delta) -> pending.merge(productId, delta, Long::sum));
+        }
+    }
+
+    private void write(Map<Long, Long> deltas, long upTo) {
+        transactionTemplate.executeWithoutResult(status -> {
+            new TreeMap<>(deltas).forEach((productId, delta) -> productRepository.adjustStock(productId,
+                    Math.toIntExact(delta)));
+            deltas.keySet().forEach(productCache::evictAfterCommit);
+            checkpointRepository.save(new InventoryEngineCheckpoint(InventoryEngineCheckpoint.SINGLETON_ID, upTo));
+        });
+    }
+
+    /**
+     * Flushes outstanding deltas and closes the journal on shutdown.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+}
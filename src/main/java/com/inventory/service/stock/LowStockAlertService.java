@@ -0,0 +1,183 @@
+package com.inventory.service.stock;
+
+import com.inventory.dto.LowStockAlertDTO;
+import com.inventory.dto.LowStockAlertDTO.Direction;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes low-stock alerts to Server-Sent Events subscribers.
+ *
+ * Subscribers are grouped by threshold in a sorted map. When a committed
+ * change moves a product's stock from {@code previous} to {@code current},
+ * only the thresholds between the two values are visited, so the cost of a
+ * change does not depend on the number of open connections. Both values are
+ * captured by the writer when it changes the stock, not read back later, so
+ * concurrent changes can't hide or duplicate a crossing. Alerts are sent
+ * from a single background thread, so slow subscribers never delay an order.
+ */
+@Slf4j
+@Component
+public class LowStockAlertService {
+
+    private static final String EVENT_NAME = "low-stock";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${inventory.low-stock.alerts.timeout-millis:0}")
+    private long timeoutMillis;
+
+    /** Subscribers per threshold; guarded by itself. */
+    private final NavigableMap<Integer, Set<SseEmitter>> subscribers = new TreeMap<>();
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens a subscription for alerts on the given threshold.
+     *
+     * @param threshold the stock level to watch
+     * @return the emitter to return from the controller
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public SseEmitter subscribe(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        synchronized (subscribers) {
+            subscribers.computeIfAbsent(threshold, t -> new LinkedHashSet<>()).add(emitter);
+        }
+        Runnable remove = () -> unsubscribe(threshold, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        log.info("New low-stock subscriber on threshold {}", threshold);
+        return emitter;
+    }
+
+    /**
+     * Publishes alerts for stock changes once the current transaction commits.
+     *
+     * @param changes stock before and after the change per product ID
+     */
+    public void publishAfterCommit(Map<Long, StockChange> changes) {
+        if (hasSubscribers()) {
+            Map<Long, StockChange> copy = new HashMap<>(changes);
+            afterCommit(() -> publish(copy));
+        }
+    }
+
+    /**
+     * Publishes alerts for stock changes that are already committed.
+     *
+     * @param changes stock before and after the change per product ID
+     */
+    public void publish(Map<Long, StockChange> changes) {
+        if (hasSubscribers()) {
+            Map<Long, StockChange> copy = new HashMap<>(changes);
+            dispatcher.execute(() -> dispatch(copy));
+        }
+    }
+
+    /**
+     * Publishes alerts for a new product once the current transaction commits;
+     * every threshold above its initial stock receives a BELOW alert.
+     *
+     * @param productId the product ID
+     * @param stock     the initial stock of the product
+     */
+    public void publishCreatedAfterCommit(Long productId, int stock) {
+        publishAfterCommit(Collections.singletonMap(productId, StockChange.created(stock)));
+    }
+
+    private boolean hasSubscribers() {
+        synchronized (subscribers) {
+            return !subscribers.isEmpty();
+        }
+    }
+
+    private void dispatch(Map<Long, StockChange> changes) {
+        try {
+            for (Product product : productRepository.findAllById(changes.keySet())) {
+                StockChange change = changes.get(product.getId());
+                notifyCrossings(product, change.getPrevious(), change.getCurrent());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Publishing low-stock alerts failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends an alert to every subscriber whose threshold lies between the
+     * previous and the current stock: a product is below threshold t when its
+     * stock is less than t.
+     */
+    void notifyCrossings(Product product, int previous, int current) {
+        if (previous == current) {
+            return;
+        }
+        Direction direction = current < previous ? Direction.BELOW : Direction.ABOVE;
+        Map<Integer, List<SseEmitter>> crossed = new TreeMap<>();
+        synchronized (subscribers) {
+            subscribers.subMap(Math.min(previous, current), false, Math.max(previous, current), true)
+                    .forEach((threshold, emitters) -> crossed.put(threshold, new ArrayList<>(emitters)));
+        }
+        crossed.forEach((threshold, emitters) -> {
+            LowStockAlertDTO alert = new LowStockAlertDTO(product.getId(), product.getSku(), current, threshold,
+                    direction);
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(alert));
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping low-stock subscriber on threshold {}: {}", threshold, e.getMessage());
+                    unsubscribe(threshold, emitter);
+                }
+            }
+        });
+    }
+
+    private void unsubscribe(int threshold, SseEmitter emitter) {
+        synchronized (subscribers) {
+            Set<SseEmitter> emitters = subscribers.get(threshold);
+            if (emitters != null && emitters.remove(emitter) && emitters.isEmpty()) {
+                subscribers.remove(threshold);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory index of product stock, ordered both by available stock
+ * and by product ID.
+ *
+ * With {@code inventory.low-stock.index.enabled=true} the index is loaded at
+ * startup and kept current by applying every committed stock change, so a
+ * low-stock query is answered without a database query. A page walks the
+ * products below the threshold in stock order and the products after the
+ * cursor in ID order side by side, and answers from whichever walk finishes
+ * first, so it costs the smaller of the number of matches and the number of
+ * products scanned to fill the page. When disabled, every method is a no-op.
+ */
+@Slf4j
+@Component
+public class LowStockIndex {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Value("${inventory.low-stock.index.enabled:false}")
+    private boolean enabled;
+
+    /** Entries of {stock, productId}, ordered by stock then product ID. */
+    private final NavigableSet<long[]> entries = new TreeSet<>((a, b) -> a[0] != b[0]
+            ? Long.compare(a[0], b[0])
+            : Long.compare(a[1], b[1]));
+
+    /** Current stock per product ID, ordered by product ID. */
+    private final NavigableMap<Long, Long> stocks = new TreeMap<>();
+
+    /**
+     * Loads the available stock of every product.
+     */
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> shardedStocks = shardedStockService.getShardedStocks();
+            try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+                products.forEach(product -> {
+                    product.setShardedStock(shardedStocks.getOrDefault(product.getId(), 0));
+                    put(product.getId(), product.getAvailableStock());
+                });
+            }
+        });
+        log.info("Low-stock index loaded with {} products", stocks.size());
+    }
+
+    /**
+     * @return true if low-stock queries should be answered from the index
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Finds products whose available stock is below the threshold.
+     *
+     * @param threshold exclusive upper bound on the stock
+     * @param afterId   only return product IDs greater than this one
+     * @param limit     maximum number of IDs to return
+     * @return matching product IDs in ascending order
+     */
+    public synchronized List<Long> findIdsBelow(int threshold, long afterId, int limit) {
+        // The stock-order walk visits only matches but has to sort them; the
+        // ID-order walk needs no sort and stops once the page is full.
+        Iterator<long[]> byStock = entries.headSet(new long[] { threshold, Long.MIN_VALUE }, false).iterator();
+        Iterator<Map.Entry<Long, Long>> byId = stocks.tailMap(afterId, false).entrySet().iterator();
+        List<Long> matches = new ArrayList<>();
+        List<Long> page = new ArrayList<>();
+        while (true) {
+            if (!byStock.hasNext()) {
+                Collections.sort(matches);
+                return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+            }
+            long[] entry = byStock.next();
+            if (entry[1] > afterId) {
+                matches.add(entry[1]);
+            }
+
+            if (page.size() >= limit || !byId.hasNext()) {
+                return page;
+            }
+            Map.Entry<Long, Long> stock = byId.next();
+            if (stock.getValue() < threshold) {
+                page.add(stock.getKey());
+            }
+        }
+    }
+
+    /**
+     * Records the stock of a product once the current transaction commits.
+     *
+     * @param productId the product ID
+     * @param stock     its available stock
+     */
+    public void putAfterCommit(Long productId, int stock) {
+        if (enabled) {
+            afterCommit(() -> put(productId, stock));
+        }
+    }
+
+    /**
+     * Applies stock deltas once the current transaction commits.
+     *
+     * @param deltas stock change per product ID; negative for decrements
+     */
+    public void adjustAfterCommit(Map<Long, Integer> deltas) {
+        if (enabled) {
+            Map<Long, Integer> copy = new HashMap<>(deltas);
+            afterCommit(() -> copy.forEach(this::adjust));
+        }
+    }
+
+    synchronized void put(Long productId, long stock) {
+        Long previous = stocks.put(productId, stock);
+        if (previous != null) {
+            entries.remove(new long[] { previous, productId });
+        }
+        entries.add(new long[] { stock, productId });
+    }
+
+    synchronized void adjust(Long productId, long delta) {
+        Long previous = stocks.get(productId);
+        if (previous != null) {
+            put(productId, previous + delta);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
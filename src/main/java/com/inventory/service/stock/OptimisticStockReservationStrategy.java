@@ -0,0 +1,90 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.repository.StockSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Reserves stock with version-checked compare-and-set updates.
+ *
+ * Stock and version of every product are read with one IN query. Each product
+ * is then decremented with an UPDATE that only matches the version that was
+ * read. When another transaction got there first, only that product is
+ * re-read and retried after a jittered exponential backoff, up to
+ * {@code inventory.stock.optimistic.max-attempts} attempts.
+ */
+@Slf4j
+@Component
+public class OptimisticStockReservationStrategy extends AbstractStockReservationStrategy {
+
+    @Value("${inventory.stock.optimistic.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${inventory.stock.optimistic.backoff-millis:2}")
+    private long backoffMillis;
+
+    @Override
+    public StockReservationMode getMode() {
+        return StockReservationMode.OPTIMISTIC;
+    }
+
+    @Override
+    public Map<Long, Product> reserve(SortedMap<Long, Integer> requestedQuantities) {
+        Map<Long, StockSnapshot> snapshots = new HashMap<>();
+        for (StockSnapshot snapshot : productRepository.findStockSnapshots(requestedQuantities.keySet())) {
+            snapshots.put(snapshot.getId(), snapshot);
+        }
+
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            StockSnapshot snapshot = snapshots.get(entry.getKey());
+            if (snapshot == null) {
+                throw productNotFound(entry.getKey());
+            }
+            decrement(snapshot, entry.getValue());
+        }
+        return loadProducts(requestedQuantities.keySet());
+    }
+
+    private void decrement(StockSnapshot snapshot, int quantity) {
+        for (int attempt = 1;; attempt++) {
+            if (snapshot.getStock() < quantity) {
+                throw insufficientStock(snapshot.getSku(), snapshot.getStock(), quantity);
+            }
+            if (productRepository.decrementStockIfVersion(snapshot.getId(), quantity, snapshot.getVersion()) == 1) {
+                return;
+            }
+            inventoryMetrics.recordStockConflict(snapshot.getId());
+            if (attempt >= maxAttempts) {
+                log.error("Giving up on product {} after {} conflicting attempts", snapshot.getSku(), attempt);
+                throw new ConcurrentStockUpdateException("Concurrent stock update detected. Please retry.");
+            }
+            log.debug("Version conflict on product {} (attempt {}), retrying", snapshot.getSku(), attempt);
+            inventoryMetrics.recordStockRetry();
+            backoff(attempt);
+            Long productId = snapshot.getId();
+            snapshot = productRepository.findStockSnapshots(Collections.singleton(productId))
+                    .stream().findFirst()
+                    .orElseThrow(() -> productNotFound(productId));
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentStockUpdateException("Interrupted while retrying stock update.");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Reserves stock under PESSIMISTIC_WRITE row locks.
+ *
+ * All rows are locked by one {@code SELECT ... FOR UPDATE} ordered by product
+ * ID, so two orders touching the same products always lock them in the same
+ * order and cannot deadlock. The locks are held until the order transaction
+ * completes, which makes the version check at flush time uncontended.
+ */
+@Slf4j
+@Component
+public class PessimisticStockReservationStrategy extends AbstractStockReservationStrategy {
+
+    @Override
+    public StockReservationMode getMode() {
+        return StockReservationMode.PESSIMISTIC;
+    }
+
+    @Override
+    public Map<Long, Product> reserve(SortedMap<Long, Integer> requestedQuantities) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(requestedQuantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw productNotFound(entry.getKey());
+            }
+            if (product.getStock() < entry.getValue()) {
+                throw insufficientStock(product.getSku(), product.getStock(), entry.getValue());
+            }
+            product.setStock(product.getStock() - entry.getValue());
+            log.debug("Stock updated for product: {}. Remaining: {}", product.getSku(), product.getStock());
+        }
+        return products;
+    }
+}
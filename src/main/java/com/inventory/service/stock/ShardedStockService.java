@@ -0,0 +1,351 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.entity.ProductStockShard;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ProductStockShardRepository;
+import com.inventory.repository.ShardStockTotal;
+import com.inventory.repository.StockSnapshot;
+import com.inventory.service.InventoryMetrics;
+import com.inventory.service.ProductCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Manages the opt-in hot SKU mode, where a product's stock is split across
+ * several {@link ProductStockShard} rows.
+ *
+ * Orders decrement one shard chosen at random (or by thread) and only spill
+ * over to the other shards when that one runs dry, so write throughput on a
+ * single SKU grows with the number of shards. A background job evens out the
+ * shards so that spill-overs stay rare.
+ *
+ * Whether a product is sharded is read from the shard rows inside the order
+ * transaction, so every instance routes an order the same way as soon as the
+ * switch commits. An order running concurrently with the switch itself may
+ * still fail with insufficient stock and has to be retried.
+ */
+@Slf4j
+@Service
+public class ShardedStockService {
+
+    /**
+     * How an order picks the first shard it tries.
+     */
+    public enum ShardSelection {
+        RANDOM, THREAD
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Value("${inventory.stock.shards.selection:RANDOM}")
+    private ShardSelection selection;
+
+    @Value("${inventory.stock.shards.max-count:64}")
+    private int maxShardCount;
+
+    @Value("${inventory.stock.shards.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * @param productId the product ID
+     * @return true if the product's stock is held in shards
+     */
+    public boolean isSharded(Long productId) {
+        return shardRepository.existsByProductId(productId);
+    }
+
+    /**
+     * @param productIds the product IDs
+     * @return the IDs of the given products whose stock is held in shards
+     */
+    public Set<Long> findSharded(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(shardRepository.findShardedProductIds(productIds));
+    }
+
+    /**
+     * @return the stock held in shards per sharded product ID
+     */
+    public Map<Long, Integer> getShardedStocks() {
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (ShardStockTotal total : shardRepository.sumStockByProduct()) {
+            stocks.put(total.getProductId(), total.getStock().intValue());
+        }
+        return stocks;
+    }
+
+    /**
+     * Sets the sharded stock of the given products with one query, so their
+     * available stock includes the shards.
+     *
+     * @param products the products to complete
+     */
+    public void fillShardedStock(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Product product : products) {
+            ids.add(product.getId());
+        }
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (ShardStockTotal total : shardRepository.sumStockByProduct(ids)) {
+            stocks.put(total.getProductId(), total.getStock().intValue());
+        }
+        for (Product product : products) {
+            product.setShardedStock(stocks.getOrDefault(product.getId(), 0));
+        }
+    }
+
+    /**
+     * Reserves the requested quantities of sharded products. Must be called
+     * inside the order transaction.
+     *
+     * @param requestedQuantities merged quantities keyed by product ID, in
+     *                            product-ID order
+     * @return the reserved products keyed by ID, with the stock left in their
+     *         shards
+     * @throws InsufficientStockException     if the shards of any product hold
+     *                                        less than the requested quantity
+     * @throws ConcurrentStockUpdateException if concurrent orders kept
+     *                                        draining the shards
+     */
+    public Map<Long, Product> reserve(SortedMap<Long, Integer> requestedQuantities) {
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            reserveFromShards(entry.getKey(), entry.getValue());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(requestedQuantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+        fillShardedStock(products.values());
+        return products;
+    }
+
+    private void reserveFromShards(Long productId, int quantity) {
+        for (int attempt = 1;; attempt++) {
+            List<Integer> stocks = shardRepository.findShardStocks(productId);
+            int available = stocks.stream().mapToInt(Integer::intValue).sum();
+            if (available < quantity) {
+                String sku = productRepository.findStockSnapshots(Collections.singleton(productId)).stream()
+                        .findFirst().map(StockSnapshot::getSku).orElse(String.valueOf(productId));
+                log.warn("Insufficient stock for product: {} (Available: {}, Requested: {})", sku, available,
+                        quantity);
+                throw new InsufficientStockException("Insufficient stock for product: " + sku);
+            }
+
+            int remaining = takeFromOneShard(productId, quantity, stocks)
+                    ? 0
+                    : spillOver(productId, quantity, stocks);
+            if (remaining == 0) {
+                return;
+            }
+            quantity = remaining;
+            inventoryMetrics.recordStockConflict(productId);
+            if (attempt >= maxAttempts) {
+                log.error("Giving up on shards of product {} after {} conflicting attempts", productId, attempt);
+                throw new ConcurrentStockUpdateException("Concurrent stock update detected. Please retry.");
+            }
+            inventoryMetrics.recordStockRetry();
+        }
+    }
+
+    /**
+     * Decrements the whole quantity from a single shard, preferring the chosen
+     * one. Shards are picked from an unlocked snapshot so the conditional
+     * UPDATE only misses when another order drained the shard in between.
+     */
+    private boolean takeFromOneShard(Long productId, int quantity, List<Integer> stocks) {
+        int shards = stocks.size();
+        int first = chooseShard(shards);
+        for (int i = 0; i < shards; i++) {
+            int index = (first + i) % shards;
+            if (stocks.get(index) >= quantity) {
+                return shardRepository.decrementShard(productId, index, quantity) == 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Spreads the quantity over several shards, visiting them in ascending
+     * index order so concurrent spill-overs acquire row locks in the same
+     * order.
+     *
+     * @return the quantity that could not be taken
+     */
+    private int spillOver(Long productId, int quantity, List<Integer> stocks) {
+        int remaining = quantity;
+        for (int index = 0; index < stocks.size() && remaining > 0; index++) {
+            int taken = Math.min(remaining, stocks.get(index));
+            if (taken > 0 && shardRepository.decrementShard(productId, index, taken) == 1) {
+                remaining -= taken;
+            }
+        }
+        log.debug("Spilled {} units of product {} over shards, {} left", quantity - remaining, productId,
+                remaining);
+        return remaining;
+    }
+
+    private int chooseShard(int shards) {
+        if (selection == ShardSelection.THREAD) {
+            return (int) (Thread.currentThread().getId() % shards);
+        }
+        return ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    /**
+     * Switches a product to hot SKU mode, moving its stock into evenly sized
+     * shards.
+     *
+     * @param productId  the product ID
+     * @param shardCount the number of shards to create
+     * @return the updated product
+     * @throws ResourceNotFoundException if the product doesn't exist
+     * @throws IllegalArgumentException  if the product is already sharded, the
+     *                                   shard count is out of range or the
+     *                                   inventory engine is enabled
+     */
+    @Transactional
+    public Product enableSharding(Long productId, int shardCount) {
+        log.info("Enabling hot SKU mode for product ID: {} with {} shards", productId, shardCount);
+        if (inventoryEngine.isEnabled()) {
+            throw new IllegalArgumentException("Hot SKU mode is not available while the inventory engine is enabled");
+        }
+        if (shardCount < 2 || shardCount > maxShardCount) {
+            throw new IllegalArgumentException("Shard count must be between 2 and " + maxShardCount);
+        }
+        Product product = lockProduct(productId);
+        if (shardRepository.countByProductId(productId) > 0) {
+            throw new IllegalArgumentException("Product stock is already sharded");
+        }
+
+        int total = product.getStock();
+        List<ProductStockShard> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            int share = total / shardCount + (i < total % shardCount ? 1 : 0);
+            shards.add(new ProductStockShard(null, productId, i, share));
+        }
+        shardRepository.saveAll(shards);
+        product.setStock(0);
+        product.setShardedStock(total);
+        productCache.evictAfterCommit(productId);
+        return product;
+    }
+
+    /**
+     * Switches a product back to a single stock counter, folding the shards
+     * into the products row.
+     *
+     * @param productId the product ID
+     * @return the updated product
+     * @throws ResourceNotFoundException if the product doesn't exist
+     * @throws IllegalArgumentException  if the product is not sharded
+     */
+    @Transactional
+    public Product disableSharding(Long productId) {
+        log.info("Disabling hot SKU mode for product ID: {}", productId);
+        Product product = lockProduct(productId);
+        List<ProductStockShard> shards = shardRepository.findByProductIdForUpdate(productId);
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Product stock is not sharded");
+        }
+
+        product.setStock(product.getStock() + shards.stream().mapToInt(ProductStockShard::getStock).sum());
+        product.setShardedStock(0);
+        shardRepository.deleteByProductId(productId);
+        productCache.evictAfterCommit(productId);
+        return product;
+    }
+
+    /**
+     * Periodically evens out the shards of every hot SKU and folds any stock
+     * left on the products row into them.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.shards.rebalance-interval-millis:5000}")
+    public void rebalanceAll() {
+        for (Long productId : shardRepository.findShardedProductIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(productId));
+            } catch (RuntimeException e) {
+                log.warn("Rebalancing shards of product {} failed: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evens out the shards of one product. Must be called inside a
+     * transaction.
+     *
+     * @param productId the product ID
+     */
+    void rebalance(Long productId) {
+        int residue = productRepository.findStockSnapshots(Collections.singleton(productId)).stream()
+                .findFirst().map(StockSnapshot::getStock).orElse(0);
+        if (residue > 0 && productRepository.decrementStock(productId, residue) == 0) {
+            residue = 0;
+        }
+        if (residue > 0) {
+            productCache.evictAfterCommit(productId);
+        }
+
+        List<ProductStockShard> shards = shardRepository.findByProductIdForUpdate(productId);
+        if (shards.isEmpty()) {
+            return;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int total = residue;
+        for (ProductStockShard shard : shards) {
+            min = Math.min(min, shard.getStock());
+            max = Math.max(max, shard.getStock());
+            total += shard.getStock();
+        }
+        if (residue == 0 && max - min <= 1) {
+            return;
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setStock(total / shards.size() + (i < total % shards.size() ? 1 : 0));
+        }
+        log.debug("Rebalanced {} units of product {} over {} shards", total, productId, shards.size());
+    }
+
+    private Product lockProduct(Long productId) {
+        return productRepository.findAllByIdForUpdate(Collections.singleton(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.error("Product not found for ID: {}", productId);
+                    return new ResourceNotFoundException("Product not found");
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package com.inventory.service.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Available stock of one product just before and just after a change,
+ * captured by the code that made the change.
+ */
+@Getter
+@AllArgsConstructor
+public class StockChange {
+
+    /** Stock before the change; {@link Integer#MAX_VALUE} for a new product. */
+    private final int previous;
+
+    /** Stock after the change. */
+    private final int current;
+
+    /**
+     * @param stock the initial stock of a new product
+     * @return a change from above every threshold down to the initial stock
+     */
+    public static StockChange created(int stock) {
+        return new StockChange(Integer.MAX_VALUE, stock);
+    }
+
+    /**
+     * @param current the stock left after the change
+     * @param delta   the change applied; negative for decrements
+     * @return the change that led to the given stock
+     */
+    public static StockChange to(int current, int delta) {
+        return new StockChange(current - delta, current);
+    }
+}
@@ -0,0 +1,276 @@
+package com.inventory.service.stock;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal of stock deltas.
+ *
+ * Each record holds a sequence number and the (product ID, delta) pairs of one
+ * transaction. Records are appended to {@code journal-current.log}; when the
+ * background writer flushes, the current file is rotated to
+ * {@code journal-<last sequence>.log} and deleted once the flush committed.
+ * A record torn by a crash is ignored on replay, since its writer never got
+ * past {@link #sync}.
+ *
+ * Appends only copy the record into the file and are serialized on the
+ * journal. Forcing to the storage device is a separate group commit: the
+ * first caller of {@link #sync} forces every record appended so far, and
+ * callers whose record was covered by that force return without forcing
+ * again. {@link #replay}, {@link #reset} and {@link #advanceTo} must not run
+ * concurrently with appends.
+ */
+@Slf4j
+public class StockJournal implements Closeable {
+
+    private static final String CURRENT = "journal-current.log";
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean force;
+
+    /** Held while forcing or replacing the channel; taken before the journal's own lock. */
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    private volatile long lastSequence;
+
+    /** Sequence number of the last record forced to the storage device; guarded by syncLock. */
+    private long syncedSequence;
+    private boolean dirty;
+
+    /**
+     * Opens the journal in the given directory, creating it if needed.
+     *
+     * @param directory directory holding the journal files
+     * @param force     whether every append is forced to the storage device
+     * @throws IOException if the directory or file cannot be opened
+     */
+    public StockJournal(Path directory, boolean force) throws IOException {
+        this.directory = directory;
+        this.force = force;
+        Files.createDirectories(directory);
+        openCurrent();
+    }
+
+    /**
+     * @return the sequence number of the last record written or replayed
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Makes sure new records are numbered after the given sequence number,
+     * e.g. the last one recorded by a database checkpoint.
+     *
+     * @param sequence the sequence number to continue from
+     */
+    public synchronized void advanceTo(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /**
+     * Appends one record without forcing it to the storage device.
+     *
+     * @param deltas stock deltas keyed by product ID
+     * @return the sequence number of the record, to pass to {@link #sync}
+     * @throws UncheckedIOException if the record cannot be written
+     */
+    public synchronized long append(Map<Long, Integer> deltas) {
+        int size = Long.BYTES + Integer.BYTES + deltas.size() * (Long.BYTES + Integer.BYTES);
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+        }
+        long sequence = lastSequence + 1;
+        buffer.clear();
+        buffer.putLong(sequence).putInt(deltas.size());
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            buffer.putLong(entry.getKey()).putInt(entry.getValue());
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to stock journal", e);
+        }
+        // Published only once written, so sync() never counts a record still in the buffer.
+        lastSequence = sequence;
+        dirty = true;
+        return sequence;
+    }
+
+    /**
+     * Waits until the record with the given sequence number is on the storage
+     * device. Does nothing if forcing is disabled.
+     *
+     * @param sequence the sequence number returned by {@link #append}
+     * @throws UncheckedIOException if the journal cannot be forced
+     */
+    public void sync(long sequence) {
+        if (!force) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedSequence >= sequence) {
+                return;
+            }
+            // Records appended after this read are left to the next force.
+            long covered = lastSequence;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not force stock journal", e);
+            }
+            syncedSequence = covered;
+        }
+    }
+
+    /**
+     * Closes the current file under a name carrying its last sequence number
+     * and starts a new one. Does nothing if no record was appended since the
+     * last rotation.
+     *
+     * @return the last sequence number contained in the rotated file
+     * @throws UncheckedIOException if the file cannot be rotated
+     */
+    public long rotate() {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (!dirty) {
+                    return lastSequence;
+                }
+                try {
+                    // Callers still waiting in sync() find their records covered.
+                    if (force) {
+                        channel.force(false);
+                    }
+                    syncedSequence = lastSequence;
+                    channel.close();
+                    Files.move(directory.resolve(CURRENT), directory.resolve(PREFIX + lastSequence + SUFFIX),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    openCurrent();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not rotate stock journal", e);
+                }
+                dirty = false;
+                return lastSequence;
+            }
+        }
+    }
+
+    /**
+     * Deletes every journal file and starts an empty one, keeping the
+     * sequence counter. Used once replayed records have been applied.
+     *
+     * @throws UncheckedIOException if the files cannot be deleted
+     */
+    public synchronized void reset() {
+        try {
+            channel.close();
+            for (Path file : rotatedFiles()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory.resolve(CURRENT));
+            openCurrent();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not reset stock journal", e);
+        }
+        dirty = false;
+    }
+
+    /**
+     * Deletes the rotated files whose records are all covered by a flush.
+     *
+     * @param sequence the last sequence number applied to the database
+     */
+    public void deleteRotatedUpTo(long sequence) {
+        for (Path file : rotatedFiles()) {
+            if (sequenceOf(file) <= sequence) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete flushed journal file {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads every journal file and sums the deltas of the records newer than
+     * the given sequence number.
+     *
+     * @param afterSequence the last sequence number already applied
+     * @return the summed deltas keyed by product ID
+     * @throws UncheckedIOException if a file cannot be read
+     */
+    public synchronized Map<Long, Long> replay(long afterSequence) {
+        Map<Long, Long> deltas = new HashMap<>();
+        List<Path> files = new ArrayList<>(rotatedFiles());
+        files.add(directory.resolve(CURRENT));
+        for (Path file : files) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file)))) {
+                while (true) {
+                    long sequence = in.readLong();
+                    int count = in.readInt();
+                    Map<Long, Integer> record = new HashMap<>();
+                    for (int i = 0; i < count; i++) {
+                        record.put(in.readLong(), in.readInt());
+                    }
+                    lastSequence = Math.max(lastSequence, sequence);
+                    if (sequence > afterSequence) {
+                        record.forEach((productId, delta) -> deltas.merge(productId, (long) delta, Long::sum));
+                    }
+                }
+            } catch (EOFException e) {
+                // end of file, or a record torn by a crash
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not replay stock journal " + file, e);
+            }
+        }
+        return deltas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                channel.close();
+            }
+        }
+    }
+
+    private void openCurrent() throws IOException {
+        channel = FileChannel.open(directory.resolve(CURRENT),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> rotatedFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(f -> f.getFileName().toString().startsWith(PREFIX)
+                            && !f.getFileName().toString().equals(CURRENT))
+                    .sorted(Comparator.comparingLong(StockJournal::sequenceOf))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list stock journal files", e);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
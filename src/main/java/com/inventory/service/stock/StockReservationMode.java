@@ -0,0 +1,12 @@
+package com.inventory.service.stock;
+
+/**
+ * Concurrency control modes available for reserving product stock.
+ *
+ * OPTIMISTIC - version-checked updates with bounded, jittered retries.
+ * PESSIMISTIC - PESSIMISTIC_WRITE row locks taken in product-ID order.
+ * ATOMIC - one conditional UPDATE per product, no read-modify-write.
+ */
+public enum StockReservationMode {
+    OPTIMISTIC, PESSIMISTIC, ATOMIC
+}
@@ -0,0 +1,38 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Strategy for decrementing product stock when an order is placed.
+ *
+ * Implementations must be called inside a transaction and either reserve
+ * every requested quantity or throw, so that the caller's rollback undoes
+ * any partial work.
+ */
+public interface StockReservationStrategy {
+
+    /**
+     * @return the concurrency control mode implemented by this strategy
+     */
+    StockReservationMode getMode();
+
+    /**
+     * Reserves the requested quantities.
+     *
+     * @param requestedQuantities merged quantities keyed by product ID, in
+     *                            product-ID order
+     * @return the reserved products, with their updated stock, keyed by ID
+     * @throws ResourceNotFoundException      if any product doesn't exist
+     * @throws InsufficientStockException     if any product stock is
+     *                                        insufficient
+     * @throws ConcurrentStockUpdateException if concurrent updates could not
+     *                                        be resolved
+     */
+    Map<Long, Product> reserve(SortedMap<Long, Integer> requestedQuantities);
+}
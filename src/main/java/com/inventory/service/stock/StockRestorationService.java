@@ -0,0 +1,169 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.PendingStockRestoration;
+import com.inventory.entity.Product;
+import com.inventory.repository.PendingStockRestorationRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockRestorationTotal;
+import com.inventory.service.ProductCache;
+import com.inventory.service.audit.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Returns the stock of cancelled orders to their products in coalesced
+ * batches.
+ *
+ * A cancellation only queues one {@link PendingStockRestoration} row per
+ * product in its own transaction. A background job sums the queue per product
+ * and applies each sum with a single {@code stock = stock + delta} UPDATE, so
+ * a burst of cancellations on one SKU costs one row write per flush instead
+ * of one version-checked read-modify-write per order line. The queue is part
+ * of the database, so no restoration is lost if the application stops before
+ * a flush.
+ *
+ * With the in-memory inventory engine enabled, restorations are queued and
+ * applied to the table the same way, and the flush adds them to the engine's
+ * counters once it commits. The table stays the durable record: a crash
+ * before the flush commits leaves the rows queued, and a crash after it
+ * reloads the counters from the table.
+ */
+@Slf4j
+@Service
+public class StockRestorationService {
+
+    @Autowired
+    private PendingStockRestorationRepository restorationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    /**
+     * Queues stock to be returned to products. Must be called inside the
+     * cancelling transaction, so the stock only returns if the cancellation
+     * commits.
+     *
+     * @param quantities units to return keyed by product ID
+     */
+    public void restore(Map<Long, Integer> quantities) {
+        List<PendingStockRestoration> queued = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity > 0) {
+                queued.add(new PendingStockRestoration(null, productId, quantity));
+            }
+        });
+        if (!queued.isEmpty()) {
+            restorationRepository.saveAll(queued);
+        }
+    }
+
+    /**
+     * Applies the queued restorations, one UPDATE per product.
+     *
+     * @return units returned keyed by product ID
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.restoration.flush-interval-millis:200}")
+    public synchronized Map<Long, Integer> flush() {
+        Map<Long, Integer> applied;
+        try {
+            applied = transactionTemplate.execute(status -> apply());
+        } catch (RuntimeException e) {
+            log.error("Restoring stock of cancelled orders failed, will retry: {}", e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+        applied.forEach(auditLog::stockRestored);
+        if (!applied.isEmpty()) {
+            log.debug("Restored stock of {} products from cancelled orders", applied.size());
+        }
+        return applied;
+    }
+
+    private Map<Long, Integer> apply() {
+        Long maxId = restorationRepository.findMaxId();
+        if (maxId == null) {
+            return Collections.emptyMap();
+        }
+        Map<Long, Integer> deltas = new TreeMap<>();
+        long rows = 0;
+        for (StockRestorationTotal total : restorationRepository.sumQuantitiesUpTo(maxId)) {
+            productRepository.adjustStock(total.getProductId(), Math.toIntExact(total.getQuantity()));
+            deltas.put(total.getProductId(), Math.toIntExact(total.getQuantity()));
+            rows += total.getLineCount();
+        }
+        // Another flusher that drained the same rows first leaves fewer to
+        // delete; roll back rather than apply them twice.
+        if (restorationRepository.deleteUpTo(maxId) != rows) {
+            throw new IllegalStateException("Stock restorations up to " + maxId + " were flushed concurrently");
+        }
+        lowStockIndex.adjustAfterCommit(deltas);
+        deltas.keySet().forEach(productCache::evictAfterCommit);
+
+        // Counters loaded before the UPDATEs commit don't see them yet
+        Map<Long, Integer> viaEngine = new HashMap<>();
+        if (inventoryEngine.isEnabled()) {
+            inventoryEngine.findLoaded(deltas.keySet()).forEach(id -> viaEngine.put(id, deltas.get(id)));
+        }
+        if (!viaEngine.isEmpty()) {
+            afterCommit(() -> {
+                Map<Long, StockChange> changes = new HashMap<>();
+                inventoryEngine.addRestored(viaEngine).forEach((productId, current) -> changes.put(productId,
+                        StockChange.to(current, viaEngine.get(productId))));
+                lowStockAlertService.publish(changes);
+            });
+        }
+
+        // Read under the row locks of the UPDATEs, so no other change falls between the pair
+        List<Product> products = productRepository.findAllById(deltas.keySet());
+        shardedStockService.fillShardedStock(products);
+        Map<Long, StockChange> changes = new HashMap<>();
+        for (Product product : products) {
+            if (!viaEngine.containsKey(product.getId())) {
+                changes.put(product.getId(), StockChange.to(product.getAvailableStock(),
+                        deltas.get(product.getId())));
+            }
+        }
+        lowStockAlertService.publishAfterCommit(changes);
+        return deltas;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
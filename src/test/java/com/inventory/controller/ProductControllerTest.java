@@ -1,7 +1,9 @@
 package com.inventory.controller;
 
+import com.inventory.dto.CursorPage;
 import com.inventory.dto.ProductDTO;
 import com.inventory.entity.Product;
+import com.inventory.exception.DuplicateSkuException;
 import com.inventory.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,10 +12,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -53,6 +59,45 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Product"));
     }
 
+    @Test
+    public void testOnlyDuplicateSkuIsAConflict() throws Exception {
+        ProductDTO dto = new ProductDTO("Test Product", "SKU002", new BigDecimal("10.00"), 1);
+
+        Mockito.when(productService.createProduct(Mockito.any()))
+                .thenThrow(new DuplicateSkuException("SKU must be unique: SKU002"));
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("SKU must be unique: SKU002"));
+
+        Mockito.when(productService.createProduct(Mockito.any()))
+                .thenThrow(new IllegalArgumentException("Stock cannot be negative"));
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        Mockito.when(productService.createProduct(Mockito.any()))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"NAME\""));
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(dto)))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    public void testExportSetsItsOwnAsyncTimeout() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1800000L, started.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+    }
+
     @Test
     public void testLowStockProducts() throws Exception {
         Product lowStock = new Product();
@@ -62,12 +107,42 @@ public class ProductControllerTest {
         lowStock.setPrice(new BigDecimal("10.00"));
         lowStock.setStock(3);
 
-        Mockito.when(productService.getLowStockProducts(5))
-                .thenReturn(Collections.singletonList(lowStock));
+        Mockito.when(productService.getLowStockProducts(5, null, null))
+                .thenReturn(new CursorPage<>(Collections.singletonList(lowStock), null));
 
         mockMvc.perform(get("/api/products/low-stock")
                 .param("threshold", "5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name").value("Low Stock Product"));
     }
+
+    @Test
+    public void testListProductsPage() throws Exception {
+        Product first = new Product(1L, "First", "SKU001", new BigDecimal("10.00"), 8, 0);
+        Product second = new Product(2L, "Second", "SKU002", new BigDecimal("20.00"), 5, 0);
+        String cursor = CursorPage.encode(2L);
+
+        Mockito.when(productService.listPage(null, 2))
+                .thenReturn(new CursorPage<>(Arrays.asList(first, second), cursor));
+        Mockito.when(productService.listPage(cursor, 2))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", cursor))
+                .andExpect(jsonPath("$[1].sku").value("SKU002"));
+
+        mockMvc.perform(get("/api/products").param("after", cursor).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        assertEquals(42L, CursorPage.decode(CursorPage.encode(42L)));
+        assertEquals(0L, CursorPage.decode(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorPage.decode("not-a-cursor"));
+    }
 }
\ No newline at end of file
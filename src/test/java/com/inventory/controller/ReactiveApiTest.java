@@ -0,0 +1,99 @@
+package com.inventory.controller;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.CursorPage;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.dto.OrderResponseDTO;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+public class ReactiveApiTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    public void testProductAndOrderContracts() {
+        Product first = createProduct("REACTIVE-001", 10);
+        createProduct("REACTIVE-002", 3);
+
+        webTestClient.get().uri("/api/products?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(CursorPage.NEXT_CURSOR_HEADER)
+                .expectBodyList(Product.class).hasSize(1);
+
+        List<Product> exported = webTestClient.get().uri("/api/products/export")
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Product.class).getResponseBody().collectList().block();
+        assertTrue(exported.stream().anyMatch(product -> product.getSku().equals("REACTIVE-002")));
+
+        OrderResponseDTO order = webTestClient.post().uri("/api/orders")
+                .bodyValue(new OrderDTO(Collections.singletonList(new OrderItemDTO(first.getId(), 4))))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrderResponseDTO.class).returnResult().getResponseBody();
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertEquals("REACTIVE-001", order.getItems().get(0).getProduct().getSku());
+
+        webTestClient.put().uri("/api/orders/" + order.getId() + "/status?status=CANCELLED")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("CANCELLED");
+        webTestClient.put().uri("/api/orders/" + order.getId() + "/status?status=COMPLETED")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testBatchAndSummaryRebuild() {
+        Product product = createProduct("REACTIVE-003", 5);
+
+        List<BatchOrderResultDTO> results = webTestClient.post().uri("/api/orders/batch")
+                .bodyValue(Arrays.asList(
+                        new OrderDTO(Collections.singletonList(new OrderItemDTO(product.getId(), 2))),
+                        new OrderDTO(Collections.singletonList(new OrderItemDTO(product.getId(), 10)))))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BatchOrderResultDTO.class).hasSize(2).returnResult().getResponseBody();
+        assertEquals(BatchOrderResultDTO.Outcome.CREATED, results.get(0).getOutcome());
+        assertEquals(BatchOrderResultDTO.Outcome.FAILED, results.get(1).getOutcome());
+
+        webTestClient.post().uri("/api/orders/summary/rebuild")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void testInvalidProductIsRejected() {
+        webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO("", "REACTIVE-BAD", new BigDecimal("-1"), 1))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private Product createProduct(String sku, int stock) {
+        return webTestClient.post().uri("/api/products")
+                .bodyValue(new ProductDTO("Reactive " + sku, sku, new BigDecimal("5.00"), stock))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Product.class).returnResult().getResponseBody();
+    }
+}
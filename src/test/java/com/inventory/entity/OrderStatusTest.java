@@ -0,0 +1,33 @@
+package com.inventory.entity;
+
+import org.junit.jupiter.api.Test;
+import java.util.EnumSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderStatusTest {
+
+    @Test
+    public void testOnlyPendingOrdersMayMove() {
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.COMPLETED));
+        assertTrue(OrderStatus.PENDING.canTransitionTo(OrderStatus.CANCELLED));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(OrderStatus.PENDING));
+        assertFalse(OrderStatus.PENDING.canTransitionTo(null));
+        for (OrderStatus to : OrderStatus.values()) {
+            assertFalse(OrderStatus.COMPLETED.canTransitionTo(to));
+            assertFalse(OrderStatus.CANCELLED.canTransitionTo(to));
+        }
+    }
+
+    @Test
+    public void testSourcesMatchTransitions() {
+        for (OrderStatus to : OrderStatus.values()) {
+            EnumSet<OrderStatus> expected = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus from : OrderStatus.values()) {
+                if (from.canTransitionTo(to)) {
+                    expected.add(from);
+                }
+            }
+            assertEquals(expected, OrderStatus.sourcesOf(to));
+        }
+    }
+}
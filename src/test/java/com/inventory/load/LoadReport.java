@@ -0,0 +1,71 @@
+package com.inventory.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a load run. Latencies are in microseconds and cover every
+ * attempt, successful or not.
+ */
+@Getter
+@AllArgsConstructor
+public class LoadReport {
+
+    private final String scenario;
+
+    private final int attempts;
+
+    private final int sold;
+
+    /** Orders rejected with insufficient stock. */
+    private final int soldOut;
+
+    /** Orders that lost a stock update race after all retries. */
+    private final int aborted;
+
+    private final int errors;
+
+    private final long stockRetries;
+
+    private final long stockConflicts;
+
+    private final double seconds;
+
+    private final long p50Micros;
+
+    private final long p99Micros;
+
+    private final long p999Micros;
+
+    private final long maxMicros;
+
+    /** Products whose stock plus sold units differ from their initial stock. */
+    private final List<String> conservationViolations;
+
+    public double getThroughput() {
+        return sold / seconds;
+    }
+
+    public double getAbortRate() {
+        return (double) aborted / attempts;
+    }
+
+    public double getRetriesPerOrder() {
+        return (double) stockRetries / attempts;
+    }
+
+    public boolean isStockConserved() {
+        return conservationViolations.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%n  throughput=%.1f orders/s sold=%d sold-out=%d aborted=%d (%.2f%%) errors=%d"
+                + " retries/order=%.3f conflicts=%d%n  latency p50=%dus p99=%dus p999=%dus max=%dus"
+                + " stock-conserved=%s", scenario, getThroughput(), sold, soldOut, aborted, 100 * getAbortRate(),
+                errors, getRetriesPerOrder(), stockConflicts, p50Micros, p99Micros, p999Micros, maxMicros,
+                isStockConserved() ? "yes" : conservationViolations);
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.load;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Parameters of an order placement load run.
+ *
+ * Every parameter can be overridden with a {@code load.*} system property,
+ * e.g. {@code mvn test -Dtest=OrderContentionLoadTest -Dload.threads=500}.
+ */
+@Getter
+@Setter
+public class LoadScenario {
+
+    /** How the SKU of each order line is picked. */
+    public enum Skew {
+        /** Every SKU equally likely. */
+        UNIFORM,
+        /** SKU i picked with a probability proportional to 1 / i^zipfExponent. */
+        ZIPFIAN,
+        /** Every order contains the first SKU; other lines are uniform. */
+        HOT
+    }
+
+    private int threads = 32;
+
+    private int ordersPerThread = 25;
+
+    private int skus = 3;
+
+    private Skew skew = Skew.HOT;
+
+    private double zipfExponent = 0.99;
+
+    private int minLines = 1;
+
+    private int maxLines = 3;
+
+    private int maxQuantity = 2;
+
+    private int initialStock = 100_000;
+
+    /**
+     * @return the defaults, overridden by any {@code load.*} system properties
+     */
+    public static LoadScenario fromSystemProperties() {
+        LoadScenario scenario = new LoadScenario();
+        scenario.threads = Integer.getInteger("load.threads", scenario.threads);
+        scenario.ordersPerThread = Integer.getInteger("load.orders-per-thread", scenario.ordersPerThread);
+        scenario.skus = Integer.getInteger("load.skus", scenario.skus);
+        scenario.skew = Skew.valueOf(System.getProperty("load.skew", scenario.skew.name()));
+        scenario.zipfExponent = Double.parseDouble(
+                System.getProperty("load.zipf-exponent", String.valueOf(scenario.zipfExponent)));
+        scenario.minLines = Integer.getInteger("load.min-lines", scenario.minLines);
+        scenario.maxLines = Integer.getInteger("load.max-lines", scenario.maxLines);
+        scenario.maxQuantity = Integer.getInteger("load.max-quantity", scenario.maxQuantity);
+        scenario.initialStock = Integer.getInteger("load.initial-stock", scenario.initialStock);
+        return scenario;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d threads x %d orders, %d SKUs %s, %d-%d lines of 1-%d units, stock %d", threads,
+                ordersPerThread, skus, skew == Skew.ZIPFIAN ? "ZIPFIAN(" + zipfExponent + ")" : skew, minLines,
+                maxLines, maxQuantity, initialStock);
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventory.load;
+
+import com.inventory.load.LoadScenario.Skew;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Places orders for a few SKUs from many threads and checks that no unit of
+ * stock is lost or oversold.
+ *
+ * The default scenario is small enough for every build; larger ones are run
+ * by overriding the {@code load.*} system properties, for example 500 threads
+ * buying the same 3 SKUs:
+ *
+ * <pre>
+ * mvn test -Dtest=OrderContentionLoadTest -Dload.threads=500 -Dload.skus=3 -Dload.skew=UNIFORM
+ * </pre>
+ *
+ * The stock reservation strategy is switched the same way with
+ * {@code -Dinventory.stock.reservation-strategy=ATOMIC}.
+ */
+@Slf4j
+@SpringBootTest
+public class OrderContentionLoadTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testStockIsConservedUnderContention() throws Exception {
+        LoadReport report = new OrderLoadHarness(orderService, productRepository, jdbcTemplate, meterRegistry)
+                .run(LoadScenario.fromSystemProperties());
+        log.info("{}", report);
+
+        assertTrue(report.isStockConserved(), report.getConservationViolations().toString());
+        assertTrue(report.getSold() > 0);
+        assertEquals(0, report.getErrors(), report.toString());
+        assertEquals(report.getAttempts(),
+                report.getSold() + report.getSoldOut() + report.getAborted() + report.getErrors());
+    }
+
+    @Test
+    public void testStockIsConservedWhenSellingOut() throws Exception {
+        LoadScenario scenario = new LoadScenario();
+        scenario.setThreads(16);
+        scenario.setOrdersPerThread(20);
+        scenario.setSkus(2);
+        scenario.setSkew(Skew.UNIFORM);
+        scenario.setInitialStock(50);
+
+        LoadReport report = new OrderLoadHarness(orderService, productRepository, jdbcTemplate, meterRegistry)
+                .run(scenario);
+        log.info("{}", report);
+
+        assertTrue(report.isStockConserved(), report.getConservationViolations().toString());
+        assertTrue(report.getSoldOut() > 0);
+        assertEquals(0, report.getErrors(), report.toString());
+    }
+
+    @Test
+    public void testZipfianSamplerFavoursFirstSkus() {
+        SkuSampler sampler = new SkuSampler(Skew.ZIPFIAN, 100, 0.99);
+        int[] counts = new int[100];
+        for (int i = 0; i < 100_000; i++) {
+            counts[sampler.next(0)]++;
+        }
+        assertTrue(counts[0] > counts[9]);
+        assertTrue(counts[9] > counts[99]);
+        // P(first SKU) = 1 / H(100, 0.99), about 0.19
+        assertEquals(0.19, counts[0] / 100_000.0, 0.02);
+    }
+}
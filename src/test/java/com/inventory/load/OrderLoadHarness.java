@@ -0,0 +1,179 @@
+package com.inventory.load;
+
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Product;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Places orders from many threads at once through {@link OrderService} and
+ * measures throughput, latency percentiles and abort and retry rates.
+ *
+ * Each run creates its own products, so runs don't interfere with each other
+ * or with other tests sharing the database. After the run the stock of every
+ * product plus the units sold in the order items table must equal its initial
+ * stock, and the units sold must match the orders the harness saw succeed.
+ */
+@Slf4j
+public class OrderLoadHarness {
+
+    private final OrderService orderService;
+
+    private final ProductRepository productRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    public OrderLoadHarness(OrderService orderService, ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs a scenario to completion.
+     *
+     * @param scenario the load parameters
+     * @return the measurements and the result of the stock conservation check
+     * @throws InterruptedException if interrupted while waiting for the threads
+     * @throws ExecutionException   if a load thread fails unexpectedly
+     * @throws TimeoutException     if the run takes longer than ten minutes
+     */
+    public LoadReport run(LoadScenario scenario) throws InterruptedException, ExecutionException, TimeoutException {
+        List<Product> products = createProducts(scenario);
+        long[] productIds = products.stream().mapToLong(Product::getId).toArray();
+        SkuSampler sampler = new SkuSampler(scenario.getSkew(), scenario.getSkus(), scenario.getZipfExponent());
+
+        AtomicLongArray soldUnits = new AtomicLongArray(productIds.length);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger aborted = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[][] latencies = new long[scenario.getThreads()][scenario.getOrdersPerThread()];
+        double retriesBefore = count("inventory.stock.retries");
+        double conflictsBefore = count("inventory.stock.conflicts");
+
+        ExecutorService executor = Executors.newFixedThreadPool(scenario.getThreads());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < scenario.getThreads(); t++) {
+            long[] threadLatencies = latencies[t];
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < scenario.getOrdersPerThread(); i++) {
+                    int lineCount = scenario.getMinLines()
+                            + random.nextInt(scenario.getMaxLines() - scenario.getMinLines() + 1);
+                    int[] skuIndexes = new int[lineCount];
+                    List<OrderItemDTO> lines = new ArrayList<>(lineCount);
+                    for (int line = 0; line < lineCount; line++) {
+                        skuIndexes[line] = sampler.next(line);
+                        lines.add(new OrderItemDTO(productIds[skuIndexes[line]],
+                                1 + random.nextInt(scenario.getMaxQuantity())));
+                    }
+                    long begin = System.nanoTime();
+                    try {
+                        orderService.createOrder(new OrderDTO(lines));
+                        sold.incrementAndGet();
+                        for (int line = 0; line < lineCount; line++) {
+                            soldUnits.addAndGet(skuIndexes[line], lines.get(line).getQuantity());
+                        }
+                    } catch (InsufficientStockException e) {
+                        soldOut.incrementAndGet();
+                    } catch (ConcurrentStockUpdateException | ConcurrencyFailureException e) {
+                        aborted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                        log.warn("Order failed unexpectedly: {}", e.getMessage(), e);
+                    }
+                    threadLatencies[i] = System.nanoTime() - begin;
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new LoadReport(scenario.toString(), all.length, sold.get(), soldOut.get(), aborted.get(),
+                errors.get(), (long) (count("inventory.stock.retries") - retriesBefore),
+                (long) (count("inventory.stock.conflicts") - conflictsBefore), seconds,
+                micros(percentile(all, 0.50)), micros(percentile(all, 0.99)), micros(percentile(all, 0.999)),
+                micros(all.length == 0 ? 0 : all[all.length - 1]),
+                checkConservation(scenario, products, soldUnits));
+    }
+
+    private List<Product> createProducts(LoadScenario scenario) {
+        String prefix = "LOAD-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        List<Product> products = new ArrayList<>(scenario.getSkus());
+        for (int i = 0; i < scenario.getSkus(); i++) {
+            products.add(new Product(null, "Load " + prefix + i, prefix + i, BigDecimal.TEN,
+                    scenario.getInitialStock(), null));
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private List<String> checkConservation(LoadScenario scenario, List<Product> products,
+            AtomicLongArray soldUnits) {
+        String placeholders = products.stream().map(p -> "?").collect(Collectors.joining(","));
+        Map<Long, Long> recorded = new HashMap<>();
+        jdbcTemplate.query("select product_id, sum(quantity) from order_items where product_id in (" + placeholders
+                + ") group by product_id", rs -> {
+                    recorded.put(rs.getLong(1), rs.getLong(2));
+                }, products.stream().map(Product::getId).toArray());
+
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            Product product = productRepository.findById(products.get(i).getId()).get();
+            long stock = product.getAvailableStock();
+            long soldInTable = recorded.getOrDefault(product.getId(), 0L);
+            if (stock + soldInTable != scenario.getInitialStock() || soldInTable != soldUnits.get(i)) {
+                violations.add(String.format("%s: stock=%d sold=%d (succeeded orders: %d) initial=%d",
+                        product.getSku(), stock, soldInTable, soldUnits.get(i), scenario.getInitialStock()));
+            }
+        }
+        return violations;
+    }
+
+    private double count(String name) {
+        Counter counter = meterRegistry.find(name).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
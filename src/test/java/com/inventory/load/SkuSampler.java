@@ -0,0 +1,50 @@
+package com.inventory.load;
+
+import com.inventory.load.LoadScenario.Skew;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks SKU indexes 0..skus-1 according to a {@link Skew}. Thread-safe.
+ */
+class SkuSampler {
+
+    private final Skew skew;
+
+    private final int skus;
+
+    /** Cumulative Zipf probabilities; only used for {@link Skew#ZIPFIAN}. */
+    private final double[] cumulative;
+
+    SkuSampler(Skew skew, int skus, double zipfExponent) {
+        this.skew = skew;
+        this.skus = skus;
+        this.cumulative = new double[skus];
+        double sum = 0;
+        for (int i = 0; i < skus; i++) {
+            sum += 1 / Math.pow(i + 1, zipfExponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < skus; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * @param line the index of the line within its order
+     * @return the SKU index for the line
+     */
+    int next(int line) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (skew) {
+        case ZIPFIAN:
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, skus - 1);
+        case HOT:
+            return line == 0 || skus == 1 ? 0 : 1 + random.nextInt(skus - 1);
+        default:
+            return random.nextInt(skus);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.repository;
+
+import com.inventory.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class LowStockQueryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testFindsProductsBelowThresholdIncludingShardStock() {
+        Product low = productRepository.save(new Product(null, "Low", "LOW-1", BigDecimal.ONE, 2, null));
+        productRepository.save(new Product(null, "High", "LOW-2", BigDecimal.ONE, 50, null));
+        Product shardedHigh = productRepository.save(new Product(null, "Sharded high", "LOW-3", BigDecimal.ONE, 0, null));
+        Product shardedLow = productRepository.save(new Product(null, "Sharded low", "LOW-4", BigDecimal.ONE, 1, null));
+        shardRepository.save(new ProductStockShard(null, shardedHigh.getId(), 0, 30));
+        shardRepository.save(new ProductStockShard(null, shardedHigh.getId(), 1, 30));
+        shardRepository.save(new ProductStockShard(null, shardedLow.getId(), 0, 2));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Product> page = productRepository.findLowStock(10, 0L, PageRequest.of(0, 10));
+        assertEquals(Arrays.asList("LOW-1", "LOW-4"), page.stream().map(Product::getSku).collect(Collectors.toList()));
+
+        List<Product> next = productRepository.findLowStock(10, low.getId(), PageRequest.of(0, 10));
+        assertEquals(Collections.singletonList("LOW-4"), next.stream().map(Product::getSku).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.inventory.repository;
+
+import com.inventory.entity.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class OrderValueSummaryQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 8, 6, 12, 0);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testSumsOrderValuePerSkuWithFilters() {
+        Product a = productRepository.save(new Product(null, "A", "SUM-A", new BigDecimal("10.00"), 100, null));
+        Product b = productRepository.save(new Product(null, "B", "SUM-B", new BigDecimal("2.50"), 100, null));
+        saveOrder(OrderStatus.PENDING, NOW.minusDays(2), a, 2, b, 4);
+        saveOrder(OrderStatus.COMPLETED, NOW.minusDays(1), a, 1, b, 2);
+        saveOrder(OrderStatus.COMPLETED, NOW, a, 3, null, 0);
+        saveOrder(OrderStatus.CANCELLED, NOW, a, 5, b, 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, BigDecimal> all = toMap(orderRepository.sumOrderValueBySku(
+                EnumSet.complementOf(EnumSet.of(OrderStatus.CANCELLED)), null, null));
+        assertEquals(0, new BigDecimal("60.00").compareTo(all.get("SUM-A")));
+        assertEquals(0, new BigDecimal("15.00").compareTo(all.get("SUM-B")));
+
+        Map<String, BigDecimal> completed = toMap(
+                orderRepository.sumOrderValueBySku(EnumSet.of(OrderStatus.COMPLETED), NOW.minusDays(1), NOW));
+        assertEquals(0, new BigDecimal("10.00").compareTo(completed.get("SUM-A")));
+        assertEquals(0, new BigDecimal("5.00").compareTo(completed.get("SUM-B")));
+    }
+
+    private void saveOrder(OrderStatus status, LocalDateTime date, Product first, int firstQuantity,
+            Product second, int secondQuantity) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setOrderDate(date);
+        order.getItems().add(new OrderItem(null, first, firstQuantity, order));
+        if (second != null) {
+            order.getItems().add(new OrderItem(null, second, secondQuantity, order));
+        }
+        orderRepository.save(order);
+    }
+
+    private Map<String, BigDecimal> toMap(List<SkuOrderValue> values) {
+        Map<String, BigDecimal> map = new HashMap<>();
+        values.forEach(v -> map.put(v.getSku(), v.getTotalValue()));
+        return map;
+    }
+}
@@ -28,7 +28,7 @@ public class ProductOrderTransactionalTest {
         product.setSku("TEST123");
         product.setPrice(new BigDecimal("100.0"));
         product.setStock(5);
-        productRepository.save(product);
+        productRepository.saveAndFlush(product);
 
         try {
             product.setStock(product.getStock() - 10);
@@ -0,0 +1,75 @@
+package com.inventory.service;
+
+import com.inventory.dto.CatalogImportReportDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.catalog-import.chunk-size=2")
+public class CatalogImportServiceTest {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void testImportRejectsInvalidRowsAndCheckpointsChunks() throws Exception {
+        productRepository.save(new Product(null, "Existing", "IMPORT-EXISTING", new BigDecimal("1.00"), 5, null));
+        String csv = "name,sku,price,stock\n"
+                + "Keyboard,IMPORT-001,49.99,10\n"
+                + "\"Mouse, wireless\",IMPORT-002,19.99,25\n"
+                + "Existing,IMPORT-EXISTING,1.00,5\n"
+                + "Broken,IMPORT-003,abc,5\n"
+                + ",IMPORT-004,1.00,5\n"
+                + "Cable,IMPORT-005,2.50,-1\n"
+                + "Hub,IMPORT-006,30.00,7\n"
+                + "Hub again,IMPORT-006,30.00,7\n"
+                + "Short,IMPORT-007\n";
+        List<Long> checkpoints = new ArrayList<>();
+
+        CatalogImportReportDTO report = catalogImportService.importCsv(channel(csv), 0, checkpoints::add);
+
+        assertEquals(9, report.getRowsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(6, report.getRejected());
+        assertEquals(10, report.getLastCommittedLine());
+        assertEquals(10L, checkpoints.get(checkpoints.size() - 1));
+        assertEquals("Mouse, wireless", productRepository.findBySku("IMPORT-002").get().getName());
+        assertEquals(7, productRepository.findBySku("IMPORT-006").get().getStock());
+        assertFalse(productRepository.findBySku("IMPORT-003").isPresent());
+        assertEquals(5, report.getRejections().get(0).getLine());
+        assertEquals("Price must be a number.", report.getRejections().get(0).getReason());
+        assertTrue(report.getRejections().stream()
+                .anyMatch(row -> row.getLine() == 4 && row.getReason().equals("SKU must be unique")));
+    }
+
+    @Test
+    public void testResumeSkipsCommittedLines() throws Exception {
+        String csv = "Lamp,IMPORT-101,15.00,3\n"
+                + "Desk,IMPORT-102,120.00,2\n"
+                + "Chair,IMPORT-103,80.00,4\n";
+
+        CatalogImportReportDTO report = catalogImportService.importCsv(channel(csv), 2, line -> {
+        });
+
+        assertEquals(1, report.getImported());
+        assertFalse(productRepository.findBySku("IMPORT-101").isPresent());
+        assertTrue(productRepository.findBySku("IMPORT-103").isPresent());
+    }
+
+    private static ReadableByteChannel channel(String csv) {
+        return Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.export.clear-interval=2")
+public class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testExportOrdersWritesOneOrderPerLine() throws Exception {
+        Product product = productRepository.save(new Product(null, "Export", "EXPORT-001", BigDecimal.TEN, 20, null));
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(new OrderDTO(
+                    Collections.singletonList(new OrderItemDTO(product.getId(), 1))));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportOrders(out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(orderRepository.count(), count);
+        assertEquals(count, lines.length);
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode order = mapper.readTree(line);
+            assertTrue(order.get("id").asLong() > previousId);
+            previousId = order.get("id").asLong();
+            assertTrue(order.get("items").size() > 0);
+        }
+        JsonNode last = mapper.readTree(lines[lines.length - 1]);
+        assertEquals("EXPORT-001", last.get("items").get(0).get("product").get("sku").asText());
+    }
+
+    @Test
+    public void testExportProductsWritesOneProductPerLine() throws Exception {
+        productRepository.save(new Product(null, "Export A", "EXPORT-A", BigDecimal.ONE, 1, null));
+        productRepository.save(new Product(null, "Export B", "EXPORT-B", BigDecimal.ONE, 2, null));
+        productRepository.save(new Product(null, "Export C", "EXPORT-C", BigDecimal.ONE, 3, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportProducts(out);
+
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(productRepository.count(), count);
+        assertEquals(count, lines.length);
+        Set<String> skus = new HashSet<>();
+        for (String line : lines) {
+            skus.add(mapper.readTree(line).get("sku").asText());
+        }
+        assertTrue(skus.containsAll(Arrays.asList("EXPORT-A", "EXPORT-B", "EXPORT-C")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventory.service;
+
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class InventoryMetricsTest {
+
+    @InjectMocks
+    private InventoryMetrics inventoryMetrics;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(inventoryMetrics, "meterRegistry", registry);
+        ReflectionTestUtils.setField(inventoryMetrics, "topContended", 1);
+        inventoryMetrics.register();
+    }
+
+    @Test
+    public void testOrderOutcomesAreClassified() {
+        long start = System.nanoTime();
+        inventoryMetrics.recordOrderCreated(start, 3);
+        inventoryMetrics.recordOrderFailed(start, new InsufficientStockException("Insufficient stock"));
+        inventoryMetrics.recordOrderFailed(start, new ConcurrentStockUpdateException("Conflict"));
+
+        assertEquals(3, registry.get("inventory.orders.create").timer().count());
+        assertEquals(3.0, registry.get("inventory.orders.lines").summary().totalAmount());
+        assertEquals(1.0, registry.get("inventory.orders.failures").tag("reason", "insufficient_stock").counter()
+                .count());
+        assertEquals(1.0, registry.get("inventory.orders.failures").tag("reason", "stock_conflict").counter()
+                .count());
+    }
+
+    @Test
+    public void testTopContendedSkusArePublishedPerInterval() {
+        StockSnapshot hot = mock(StockSnapshot.class);
+        when(hot.getId()).thenReturn(1L);
+        when(hot.getSku()).thenReturn("HOT-001");
+        when(productRepository.findStockSnapshots(anyCollection())).thenReturn(Collections.singletonList(hot));
+        for (int i = 0; i < 5; i++) {
+            inventoryMetrics.recordStockConflict(1L);
+        }
+        inventoryMetrics.recordStockConflict(2L);
+
+        inventoryMetrics.refreshContention();
+
+        assertEquals(6.0, registry.get("inventory.stock.conflicts").counter().count());
+        assertEquals(5.0, registry.get("inventory.stock.contention.top").tag("sku", "HOT-001").gauge().value());
+        assertEquals(1, registry.find("inventory.stock.contention.top").gauges().size());
+
+        inventoryMetrics.refreshContention();
+
+        assertTrue(registry.find("inventory.stock.contention.top").gauges().isEmpty());
+
+        for (int i = 0; i < 3; i++) {
+            inventoryMetrics.recordStockConflict(1L);
+        }
+        inventoryMetrics.refreshContention();
+
+        assertEquals(3.0, registry.get("inventory.stock.contention.top").tag("sku", "HOT-001").gauge().value());
+    }
+}
@@ -0,0 +1,107 @@
+package com.inventory.service;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.dto.OrderQueueStatsDTO;
+import com.inventory.dto.OrderSubmissionDTO;
+import com.inventory.dto.OrderSubmissionDTO.State;
+import com.inventory.exception.OrderQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class OrderAcceptanceServiceTest {
+
+    @InjectMocks
+    private OrderAcceptanceService orderAcceptanceService;
+
+    @Mock
+    private OrderBatchService orderBatchService;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderAcceptanceService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(orderAcceptanceService, "workerCount", 1);
+        ReflectionTestUtils.setField(orderAcceptanceService, "batchSize", 10);
+        ReflectionTestUtils.setField(orderAcceptanceService, "statusRetentionMillis", 60000L);
+        ReflectionTestUtils.setField(orderAcceptanceService, "shutdownTimeoutMillis", 5000L);
+    }
+
+    @AfterEach
+    public void teardown() throws InterruptedException {
+        orderAcceptanceService.stop();
+    }
+
+    @Test
+    public void testQueuedOrderReportsOutcome() throws Exception {
+        when(orderBatchService.createOrders(anyList()))
+                .thenReturn(Collections.singletonList(BatchOrderResultDTO.created(0, 42L)));
+        orderAcceptanceService.start();
+
+        OrderSubmissionDTO submission = orderAcceptanceService.submit(order());
+        assertEquals(State.QUEUED, submission.getState());
+
+        OrderSubmissionDTO outcome = await(submission.getTrackingId());
+        assertEquals(State.CREATED, outcome.getState());
+        assertEquals(42L, outcome.getOrderId());
+        assertNotNull(outcome.getCompletedAt());
+        assertEquals(1, orderAcceptanceService.getStats().getCreated());
+    }
+
+    @Test
+    public void testFullQueueRejectsSubmissions() throws Exception {
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderBatchService.createOrders(anyList())).thenAnswer(invocation -> {
+            processing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            List<OrderDTO> orders = invocation.getArgument(0);
+            List<BatchOrderResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(BatchOrderResultDTO.failed(i, "Insufficient stock for product: SKU001"));
+            }
+            return results;
+        });
+        orderAcceptanceService.start();
+
+        OrderSubmissionDTO first = orderAcceptanceService.submit(order());
+        assertTrue(processing.await(5, TimeUnit.SECONDS));
+        OrderSubmissionDTO second = orderAcceptanceService.submit(order());
+        assertThrows(OrderQueueFullException.class, () -> orderAcceptanceService.submit(order()));
+
+        OrderQueueStatsDTO stats = orderAcceptanceService.getStats();
+        assertEquals(1, stats.getDepth());
+        assertEquals(2, stats.getAccepted());
+        assertEquals(1, stats.getRejected());
+
+        release.countDown();
+        assertEquals(State.FAILED, await(first.getTrackingId()).getState());
+        assertEquals("Insufficient stock for product: SKU001", await(second.getTrackingId()).getError());
+    }
+
+    private OrderSubmissionDTO await(String trackingId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            OrderSubmissionDTO submission = orderAcceptanceService.getSubmission(trackingId);
+            if (submission.getState() != State.QUEUED) {
+                return submission;
+            }
+            Thread.sleep(10);
+        }
+        fail("Submission " + trackingId + " was not processed");
+        return null;
+    }
+
+    private static OrderDTO order() {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(1L, 1)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.inventory.service;
+
+import com.inventory.dto.BatchOrderResultDTO;
+import com.inventory.dto.BatchOrderResultDTO.Outcome;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.stock.ShardedStockService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "inventory.orders.batch.chunk-size=3",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class OrderBatchServiceTest {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Test
+    public void testBatchReportsOutcomePerOrder() {
+        Product product = productRepository.save(new Product(null, "Batch", "BATCH-001", BigDecimal.TEN, 10, null));
+        Long id = product.getId();
+
+        List<OrderDTO> orders = Arrays.asList(
+                order(id, 2),
+                order(id, 0),
+                order(-1L, 1),
+                order(id, 3),
+                order(id, 50),
+                order(id, 4),
+                order(id, 1));
+
+        List<BatchOrderResultDTO> results = orderBatchService.createOrders(orders);
+
+        assertEquals(7, results.size());
+        assertEquals(Arrays.asList(Outcome.CREATED, Outcome.FAILED, Outcome.FAILED, Outcome.CREATED,
+                Outcome.FAILED, Outcome.CREATED, Outcome.CREATED),
+                results.stream().map(BatchOrderResultDTO::getOutcome).collect(java.util.stream.Collectors.toList()));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertTrue(results.get(1).getError().contains("Quantity must be at least 1"));
+        assertEquals("Product not found", results.get(2).getError());
+        assertTrue(results.get(4).getError().contains("Insufficient stock"));
+        assertTrue(orderRepository.existsById(results.get(6).getOrderId()));
+        assertEquals(0, productRepository.findById(id).get().getStock());
+    }
+
+    @Test
+    public void testChunkIsFlushedOnce() {
+        Product first = productRepository.save(new Product(null, "Batch A", "BATCH-002", BigDecimal.TEN, 100, null));
+        Product second = productRepository.save(new Product(null, "Batch B", "BATCH-003", BigDecimal.ONE, 100, null));
+        // Creates the sales summary rows of both SKUs up front
+        orderBatchService.createOrders(Arrays.asList(order(first.getId(), 1), order(second.getId(), 1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BatchOrderResultDTO> results = orderBatchService.createOrders(Arrays.asList(
+                order(first.getId(), 2), order(second.getId(), 3), order(first.getId(), 4)));
+
+        assertTrue(results.stream().allMatch(r -> r.getOutcome() == Outcome.CREATED));
+        // One flush for the whole chunk: the stock and summary UPDATEs of each
+        // order must not flush the queued order inserts.
+        assertEquals(1, statistics.getFlushCount());
+        assertEquals(6, statistics.getEntityInsertCount());
+        assertEquals(93, productRepository.findById(first.getId()).get().getStock());
+        assertEquals(96, productRepository.findById(second.getId()).get().getStock());
+    }
+
+    @Test
+    public void testChunkWithAHotSkuIsFlushedOnce() {
+        Product regular = productRepository.save(new Product(null, "Batch C", "BATCH-004", BigDecimal.TEN, 100, null));
+        Product hot = productRepository.save(new Product(null, "Batch D", "BATCH-005", BigDecimal.ONE, 100, null));
+        shardedStockService.enableSharding(hot.getId(), 4);
+        orderBatchService.createOrders(Arrays.asList(order(regular.getId(), 1), order(hot.getId(), 1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BatchOrderResultDTO> results = orderBatchService.createOrders(Arrays.asList(
+                order(hot.getId(), 2), order(regular.getId(), 3), order(hot.getId(), 4)));
+
+        assertTrue(results.stream().allMatch(r -> r.getOutcome() == Outcome.CREATED));
+        // The shard UPDATEs must not flush the queued order inserts either
+        assertEquals(1, statistics.getFlushCount());
+        assertEquals(6, statistics.getEntityInsertCount());
+        assertEquals(96, productRepository.findById(regular.getId()).get().getStock());
+        assertEquals(93, shardedStockService.getShardedStocks().get(hot.getId()));
+    }
+
+    @Test
+    public void testRejectsOversizedBatch() {
+        List<OrderDTO> orders = Collections.nCopies(50001, order(1L, 1));
+        assertThrows(IllegalArgumentException.class, () -> orderBatchService.createOrders(orders));
+    }
+
+    private OrderDTO order(Long productId, int quantity) {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(productId, quantity)));
+    }
+}
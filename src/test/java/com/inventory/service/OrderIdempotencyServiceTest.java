@@ -0,0 +1,138 @@
+package com.inventory.service;
+
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Product;
+import com.inventory.exception.IdempotencyKeyReuseException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.OrderIdempotencyKeyRepository;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.OrderIdempotencyService.IdempotentOrder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class OrderIdempotencyServiceTest {
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository keyRepository;
+
+    @Test
+    public void testRetryReplaysTheFirstOrder() {
+        Product product = productRepository.save(new Product(null, "Idem A", "IDEM-001", new BigDecimal("5.00"),
+                10, null));
+        OrderDTO order = order(product, 3);
+        long ordersBefore = orderRepository.count();
+
+        IdempotentOrder first = orderIdempotencyService.createOrder("retry-1", order);
+        IdempotentOrder cached = orderIdempotencyService.createOrder("retry-1", order(product, 3));
+        orderIdempotencyService.clearCache();
+        IdempotentOrder stored = orderIdempotencyService.createOrder("retry-1", order(product, 3));
+
+        assertFalse(first.isReplayed());
+        assertTrue(cached.isReplayed());
+        assertTrue(stored.isReplayed());
+        assertEquals(first.getResponse().getId(), cached.getResponse().getId());
+        assertEquals(first.getResponse().getId(), stored.getResponse().getId());
+        assertEquals(3, stored.getResponse().getItems().get(0).getQuantity());
+        assertEquals(ordersBefore + 1, orderRepository.count());
+        assertEquals(7, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    @Test
+    public void testKeyReusedForADifferentOrderIsRejected() {
+        Product product = productRepository.save(new Product(null, "Idem B", "IDEM-002", new BigDecimal("5.00"),
+                10, null));
+        orderIdempotencyService.createOrder("reuse-1", order(product, 1));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> orderIdempotencyService.createOrder("reuse-1", order(product, 2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderIdempotencyService.createOrder(" ", order(product, 1)));
+        assertEquals(9, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    @Test
+    public void testFailedOrderIsNotStored() {
+        Product product = productRepository.save(new Product(null, "Idem C", "IDEM-003", new BigDecimal("5.00"),
+                1, null));
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderIdempotencyService.createOrder("failed-1", order(product, 2)));
+        assertFalse(keyRepository.existsById("failed-1"));
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderIdempotencyService.createOrder("failed-1", order(product, 2)));
+        assertEquals(1, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    @Test
+    public void testConcurrentDuplicatesCreateOneOrder() throws Exception {
+        Product product = productRepository.save(new Product(null, "Idem D", "IDEM-004", new BigDecimal("5.00"),
+                100, null));
+        long ordersBefore = orderRepository.count();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<IdempotentOrder>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return orderIdempotencyService.createOrder("storm-1", order(product, 1));
+                }));
+            }
+            start.countDown();
+
+            Set<Long> orderIds = new HashSet<>();
+            int executed = 0;
+            for (Future<IdempotentOrder> result : results) {
+                IdempotentOrder order = result.get(30, TimeUnit.SECONDS);
+                orderIds.add(order.getResponse().getId());
+                executed += order.isReplayed() ? 0 : 1;
+            }
+            assertEquals(1, orderIds.size());
+            assertEquals(1, executed);
+            assertEquals(ordersBefore + 1, orderRepository.count());
+            assertEquals(99, productRepository.findById(product.getId()).get().getStock());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredKeyCreatesANewOrder() {
+        Product product = productRepository.save(new Product(null, "Idem E", "IDEM-005", new BigDecimal("5.00"),
+                10, null));
+        Long first = orderIdempotencyService.createOrder("expired-1", order(product, 1)).getResponse().getId();
+
+        ReflectionTestUtils.setField(orderIdempotencyService, "ttlMillis", -1000L);
+        try {
+            IdempotentOrder second = orderIdempotencyService.createOrder("expired-1", order(product, 1));
+            assertFalse(second.isReplayed());
+            assertNotEquals(first, second.getResponse().getId());
+        } finally {
+            ReflectionTestUtils.setField(orderIdempotencyService, "ttlMillis", 86400000L);
+        }
+    }
+
+    private OrderDTO order(Product product, int quantity) {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(product.getId(), quantity)));
+    }
+}
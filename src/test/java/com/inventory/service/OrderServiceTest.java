@@ -1,15 +1,28 @@
 package com.inventory.service;
 
+import com.inventory.dto.CursorPage;
 import com.inventory.dto.OrderDTO;
 import com.inventory.dto.OrderItemDTO;
+import com.inventory.dto.OrderResponseDTO;
 import com.inventory.entity.*;
 import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.OrderLineView;
 import com.inventory.repository.OrderRepository;
-import com.inventory.repository.ProductRepository;
+import com.inventory.service.archive.OrderArchive;
+import com.inventory.service.audit.AuditLog;
+import com.inventory.service.stock.InventoryEngine;
+import com.inventory.service.stock.LowStockAlertService;
+import com.inventory.service.stock.LowStockIndex;
+import com.inventory.service.stock.ShardedStockService;
+import com.inventory.service.stock.StockReservationStrategy;
+import com.inventory.service.stock.StockRestorationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,7 +37,37 @@ public class OrderServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private StockReservationStrategy stockReservationStrategy;
+
+    @Mock
+    private ShardedStockService shardedStockService;
+
+    @Mock
+    private InventoryEngine inventoryEngine;
+
+    @Mock
+    private SalesSummaryService salesSummaryService;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private LowStockAlertService lowStockAlertService;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private StockRestorationService stockRestorationService;
+
+    @Mock
+    private InventoryMetrics inventoryMetrics;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private OrderArchive orderArchive;
 
     @BeforeEach
     public void setup() {
@@ -38,7 +81,7 @@ public class OrderServiceTest {
         product.setName("Item");
         product.setSku("SKU001");
         product.setPrice(new BigDecimal("50.00"));
-        product.setStock(10);
+        product.setStock(8);
 
         OrderItemDTO itemDTO = new OrderItemDTO();
         itemDTO.setProductId(1L);
@@ -47,26 +90,21 @@ public class OrderServiceTest {
         OrderDTO dto = new OrderDTO();
         dto.setItems(Collections.singletonList(itemDTO));
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(stockReservationStrategy.reserve(any())).thenReturn(Collections.singletonMap(1L, product));
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
 
         Order result = orderService.createOrder(dto);
 
         assertNotNull(result);
         assertEquals(1, result.getItems().size());
-        verify(productRepository, times(1)).findById(1L);
+        assertSame(product, result.getItems().get(0).getProduct());
+        verify(stockReservationStrategy, times(1)).reserve(any());
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(auditLog).orderCreatedAfterCommit(result);
     }
 
     @Test
     public void testCreateOrder_InsufficientStock() {
-        Product product = new Product();
-        product.setId(1L);
-        product.setName("Item");
-        product.setSku("SKU001");
-        product.setPrice(new BigDecimal("50.00"));
-        product.setStock(1);
-
         OrderItemDTO itemDTO = new OrderItemDTO();
         itemDTO.setProductId(1L);
         itemDTO.setQuantity(5);
@@ -74,7 +112,8 @@ public class OrderServiceTest {
         OrderDTO dto = new OrderDTO();
         dto.setItems(Collections.singletonList(itemDTO));
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(stockReservationStrategy.reserve(any()))
+                .thenThrow(new InsufficientStockException("Insufficient stock for product: SKU001"));
 
         Exception exception = assertThrows(InsufficientStockException.class, () -> {
             orderService.createOrder(dto);
@@ -82,4 +121,73 @@ public class OrderServiceTest {
         assertTrue(exception.getMessage().contains("Insufficient stock"));
         verify(orderRepository, times(0)).save(any(Order.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCreateOrder_DuplicateProductLinesMergedInProductIdOrder() {
+        Product first = new Product(1L, "First", "SKU001", new BigDecimal("10.00"), 8, 1);
+        Product second = new Product(2L, "Second", "SKU002", new BigDecimal("20.00"), 5, 1);
+        Map<Long, Product> reserved = new HashMap<>();
+        reserved.put(1L, first);
+        reserved.put(2L, second);
+
+        OrderDTO dto = new OrderDTO();
+        dto.setItems(Arrays.asList(new OrderItemDTO(2L, 1), new OrderItemDTO(1L, 2), new OrderItemDTO(2L, 4)));
+
+        when(stockReservationStrategy.reserve(any())).thenReturn(reserved);
+        when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        Order result = orderService.createOrder(dto);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SortedMap<Long, Integer>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        verify(stockReservationStrategy).reserve(captor.capture());
+        assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(captor.getValue().keySet()));
+        assertEquals(2, captor.getValue().get(1L));
+        assertEquals(5, captor.getValue().get(2L));
+        assertEquals(3, result.getItems().size());
+    }
+
+    @Test
+    public void testCreateOrder_UnknownProduct() {
+        OrderDTO dto = new OrderDTO();
+        dto.setItems(Collections.singletonList(new OrderItemDTO(99L, 1)));
+
+        when(stockReservationStrategy.reserve(any())).thenThrow(new ResourceNotFoundException("Product not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(dto));
+        verify(orderRepository, times(0)).save(any(Order.class));
+    }
+
+    @Test
+    public void testGetOrdersPage_AssemblesOrdersFromLineProjections() {
+        ReflectionTestUtils.setField(orderService, "maxPageLimit", 1000);
+        when(orderRepository.findIdsGreaterThan(eq(0L), any())).thenReturn(Arrays.asList(1L, 2L, 3L));
+        List<OrderLineView> lines = Arrays.asList(
+                line(1L, 10L, 1L, "SKU001", 2),
+                line(1L, 11L, 2L, "SKU002", 1),
+                line(2L, 12L, 1L, "SKU001", 5));
+        when(orderRepository.findLinesByOrderIds(Arrays.asList(1L, 2L))).thenReturn(lines);
+
+        CursorPage<OrderResponseDTO> page = orderService.getOrdersPage(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2, page.getItems().get(0).getItems().size());
+        assertEquals("SKU002", page.getItems().get(0).getItems().get(1).getProduct().getSku());
+        assertEquals(5, page.getItems().get(1).getItems().get(0).getQuantity());
+        assertEquals(2L, CursorPage.decode(page.getNextCursor()));
+        verify(orderRepository, never()).findAll();
+    }
+
+    private OrderLineView line(Long orderId, Long itemId, Long productId, String sku, int quantity) {
+        OrderLineView line = mock(OrderLineView.class);
+        when(line.getOrderId()).thenReturn(orderId);
+        when(line.getOrderDate()).thenReturn(LocalDateTime.now());
+        when(line.getStatus()).thenReturn(OrderStatus.PENDING);
+        when(line.getItemId()).thenReturn(itemId);
+        when(line.getProductId()).thenReturn(productId);
+        when(line.getSku()).thenReturn(sku);
+        when(line.getPrice()).thenReturn(BigDecimal.TEN);
+        when(line.getQuantity()).thenReturn(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,94 @@
+package com.inventory.service;
+
+import com.inventory.dto.BulkStatusUpdateResultDTO;
+import com.inventory.dto.BulkStatusUpdateResultDTO.Reason;
+import com.inventory.dto.BulkStatusUpdateResultDTO.RejectedOrder;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.stock.StockRestorationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.stock.restoration.flush-interval-millis=3600000")
+public class OrderStatusBatchServiceTest {
+
+    @Autowired
+    private OrderStatusBatchService orderStatusBatchService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+
+    @Autowired
+    private StockRestorationService stockRestorationService;
+
+    @Test
+    public void testBulkCancellationMovesAllowedOrdersAndRejectsTheRest() {
+        ReflectionTestUtils.setField(orderStatusBatchService, "chunkSize", 2);
+        try {
+            Product product = productRepository.save(new Product(null, "Bulk A", "BULK-001", new BigDecimal("2.50"),
+                    100, null));
+            List<Long> orderIds = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Order order = orderService.createOrder(new OrderDTO(
+                        Collections.singletonList(new OrderItemDTO(product.getId(), 3))));
+                orderIds.add(order.getId());
+            }
+            orderService.updateStatus(orderIds.get(4), OrderStatus.COMPLETED);
+            assertEquals(0, new BigDecimal("37.50").compareTo(salesSummaryService.getSummary().get("BULK-001")));
+
+            List<Long> requested = new ArrayList<>(orderIds);
+            requested.add(orderIds.get(0));
+            requested.add(-1L);
+            BulkStatusUpdateResultDTO result = orderStatusBatchService.updateStatuses(requested,
+                    OrderStatus.CANCELLED);
+
+            assertEquals(OrderStatus.CANCELLED, result.getStatus());
+            assertEquals(6, result.getRequested());
+            assertEquals(4, result.getUpdated());
+            assertEquals(2, result.getRejected().size());
+            RejectedOrder completed = result.getRejected().get(0);
+            assertEquals(orderIds.get(4), completed.getOrderId());
+            assertEquals(OrderStatus.COMPLETED, completed.getCurrentStatus());
+            assertEquals(Reason.INVALID_TRANSITION, completed.getReason());
+            RejectedOrder unknown = result.getRejected().get(1);
+            assertEquals(-1L, unknown.getOrderId());
+            assertNull(unknown.getCurrentStatus());
+            assertEquals(Reason.NOT_FOUND, unknown.getReason());
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderIds.get(i)).get().getStatus());
+            }
+            assertEquals(OrderStatus.COMPLETED, orderRepository.findById(orderIds.get(4)).get().getStatus());
+            assertEquals(0, new BigDecimal("7.50").compareTo(salesSummaryService.getSummary().get("BULK-001")));
+
+            assertEquals(12, stockRestorationService.flush().get(product.getId()));
+            assertEquals(97, productRepository.findById(product.getId()).get().getStock());
+
+            BulkStatusUpdateResultDTO again = orderStatusBatchService.updateStatuses(orderIds.subList(0, 4),
+                    OrderStatus.COMPLETED);
+            assertEquals(0, again.getUpdated());
+            assertEquals(4, again.getRejected().size());
+        } finally {
+            ReflectionTestUtils.setField(orderStatusBatchService, "chunkSize", 1000);
+        }
+    }
+}
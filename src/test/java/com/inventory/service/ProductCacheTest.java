@@ -0,0 +1,108 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductCacheStatsDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ProductCacheTest {
+
+    @InjectMocks
+    private ProductCache productCache;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(productCache, "maxSize", 2);
+        ReflectionTestUtils.setField(productCache, "ttlMillis", 60000L);
+    }
+
+    @Test
+    public void testReadThroughByIdAndSku() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, "SKU-1", 0)));
+
+        assertEquals("SKU-1", productCache.getById(1L).get().getSku());
+        assertEquals("SKU-1", productCache.getById(1L).get().getSku());
+        assertEquals(1L, productCache.getBySku("SKU-1").get().getId());
+
+        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, never()).findBySku(any());
+        ProductCacheStatsDTO stats = productCache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondMaxSize() {
+        for (long id = 1; id <= 3; id++) {
+            when(productRepository.findById(id)).thenReturn(Optional.of(product(id, "SKU-" + id, 0)));
+        }
+        productCache.getById(1L);
+        productCache.getById(2L);
+        productCache.getById(1L);
+        productCache.getById(3L);
+        productCache.getById(2L);
+
+        verify(productRepository, times(2)).findById(2L);
+        assertEquals(2, productCache.getStats().getSize());
+        assertTrue(productCache.getStats().getEvictions() >= 1);
+    }
+
+    @Test
+    public void testRefreshReplacesOnlyWithNewerVersion() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product(1L, "SKU-1", 3)));
+        productCache.getById(1L);
+
+        productCache.refresh(product(1L, "SKU-1", 2));
+        assertEquals(3, productCache.getById(1L).get().getVersion());
+        verify(productRepository, times(2)).findById(1L);
+
+        productCache.refresh(product(1L, "SKU-1", 5));
+        assertEquals(5, productCache.getById(1L).get().getVersion());
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(product(1L, "SKU-1", 0));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Product>>> results = new ArrayList<>();
+            results.add(pool.submit(() -> productCache.getById(1L)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> productCache.getById(1L)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<Product>> result : results) {
+                assertEquals("SKU-1", result.get(5, TimeUnit.SECONDS).get().getSku());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    private Product product(Long id, String sku, int version) {
+        return new Product(id, "Product " + id, sku, BigDecimal.TEN, 10, version);
+    }
+}
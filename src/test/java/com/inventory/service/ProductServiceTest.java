@@ -0,0 +1,49 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.exception.DuplicateSkuException;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import java.math.BigDecimal;
+import java.util.Collections;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockBean
+    private SkuBloomFilter skuFilter;
+
+    @Test
+    public void testDuplicateSkuFoundByThePreCheckIsReported() {
+        productRepository.save(new Product(null, "Known", "KNOWN-001", BigDecimal.ONE, 1, null));
+        Mockito.when(skuFilter.mightContain("KNOWN-001")).thenReturn(true);
+
+        DuplicateSkuException e = assertThrows(DuplicateSkuException.class,
+                () -> productService.createProduct(new ProductDTO("Known again", "KNOWN-001", BigDecimal.ONE, 1)));
+        assertTrue(e.getMessage().contains("KNOWN-001"));
+    }
+
+    @Test
+    public void testDuplicateSkuPastThePreCheckIsReported() {
+        // Inserted behind the filter's back, like a concurrent insert on another instance
+        productRepository.save(new Product(null, "Racer", "RACE-001", BigDecimal.ONE, 1, null));
+        Mockito.when(skuFilter.mightContain("RACE-001")).thenReturn(false);
+
+        DuplicateSkuException e = assertThrows(DuplicateSkuException.class,
+                () -> productService.createProduct(new ProductDTO("Racer again", "RACE-001", BigDecimal.ONE, 1)));
+        assertTrue(e.getMessage().contains("RACE-001"));
+        assertEquals(1, productRepository.findExistingSkus(Collections.singleton("RACE-001")).size());
+    }
+}
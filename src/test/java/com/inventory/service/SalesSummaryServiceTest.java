@@ -0,0 +1,106 @@
+package com.inventory.service;
+
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.entity.SkuSalesSummary;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.SkuSalesSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.sales-summary.rebuild.chunk-size=2")
+public class SalesSummaryServiceTest {
+
+    @Autowired
+    private SalesSummaryService salesSummaryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SkuSalesSummaryRepository summaryRepository;
+
+    @Test
+    public void testSummaryTracksCreationAndCancellation() {
+        Product product = productRepository.save(new Product(null, "Summary", "SUMMARY-001", new BigDecimal("4.00"),
+                100, null));
+        orderService.createOrder(order(product.getId(), 3));
+        Order cancelled = orderService.createOrder(order(product.getId(), 5));
+        orderService.createOrder(order(product.getId(), 1));
+
+        assertEquals(0, new BigDecimal("36.00").compareTo(salesSummaryService.getSummary().get("SUMMARY-001")));
+
+        orderService.updateStatus(cancelled.getId(), OrderStatus.CANCELLED);
+
+        assertEquals(0, new BigDecimal("16.00").compareTo(salesSummaryService.getSummary().get("SUMMARY-001")));
+        // Date filters only narrow the orders; cancelled ones stay out as in the table
+        assertEquals(0, new BigDecimal("16.00").compareTo(orderService.summarizeTotalOrderValue(null,
+                LocalDateTime.now().minusDays(1), null).get("SUMMARY-001")));
+    }
+
+    @Test
+    public void testConcurrentFirstOrdersOfASku() throws Exception {
+        Product product = productRepository.save(new Product(null, "First", "SUMMARY-003", new BigDecimal("1.50"),
+                100, null));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Order>> orders = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                orders.add(executor.submit(() -> {
+                    start.await();
+                    // Retry like a client would on a 409 response
+                    while (true) {
+                        try {
+                            return orderService.createOrder(order(product.getId(), 2));
+                        } catch (ConcurrentStockUpdateException e) {
+                            // another first order won the stock update
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Order> order : orders) {
+                order.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, new BigDecimal("24.00").compareTo(salesSummaryService.getSummary().get("SUMMARY-003")));
+    }
+
+    @Test
+    public void testRebuildCorrectsDrift() {
+        Product product = productRepository.save(new Product(null, "Drift", "SUMMARY-002", new BigDecimal("2.50"),
+                100, null));
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(order(product.getId(), 2));
+        }
+        summaryRepository.save(new SkuSalesSummary("SUMMARY-002", new BigDecimal("1.00")));
+
+        Map<String, BigDecimal> drift = salesSummaryService.rebuild();
+
+        assertEquals(0, new BigDecimal("24.00").compareTo(drift.get("SUMMARY-002")));
+        assertEquals(0, new BigDecimal("25.00").compareTo(salesSummaryService.getSummary().get("SUMMARY-002")));
+        assertFalse(salesSummaryService.rebuild().containsKey("SUMMARY-002"));
+    }
+
+    private OrderDTO order(Long productId, int quantity) {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(productId, quantity)));
+    }
+}
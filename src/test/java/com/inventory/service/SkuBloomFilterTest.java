@@ -0,0 +1,38 @@
+package com.inventory.service;
+
+import com.inventory.dto.SkuFilterStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SkuBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegativesAndBoundedFalsePositives() {
+        SkuBloomFilter filter = new SkuBloomFilter();
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 10000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        filter.allocate();
+
+        for (int i = 0; i < 10000; i++) {
+            filter.put("SKU-" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(filter.mightContain("SKU-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("NEW-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+
+        SkuFilterStatsDTO stats = filter.getStats();
+        assertEquals(10000, stats.getInsertions());
+        assertEquals(7, stats.getHashFunctions());
+        assertTrue(stats.getMemoryBytes() < 16 * 1024);
+        assertEquals(10000 - falsePositives, stats.getDefiniteMisses());
+        assertEquals(0.01, stats.getEstimatedFalsePositiveRate(), 0.005);
+    }
+}
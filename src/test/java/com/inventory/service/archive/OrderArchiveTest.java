@@ -0,0 +1,182 @@
+package com.inventory.service.archive;
+
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.repository.OrderLineView;
+import com.inventory.repository.OrderRepository;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrderArchiveTest {
+
+    private static final LocalDateTime JANUARY = LocalDateTime.of(2025, 1, 15, 10, 30);
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 15, 10, 30);
+
+    @TempDir
+    Path directory;
+
+    @InjectMocks
+    private OrderArchive orderArchive;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(orderArchive, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(orderArchive, "enabled", true);
+        ReflectionTestUtils.setField(orderArchive, "dir", directory.toString());
+        ReflectionTestUtils.setField(orderArchive, "retentionDays", 90);
+        ReflectionTestUtils.setField(orderArchive, "segmentOrders", 2);
+        when(productRepository.findAllById(any())).thenReturn(Arrays.asList(
+                new Product(1L, "Laptop", "SKU001", new BigDecimal("999.99"), 10, null),
+                new Product(2L, "Mouse", "SKU002", new BigDecimal("19.90"), 10, null)));
+        orderArchive.open();
+    }
+
+    @Test
+    public void testSegmentStoresLinesColumnByColumn() throws IOException {
+        Path file = directory.resolve("segment-00000001.col");
+        ArchiveSegment segment = ArchiveSegment.write(file, Arrays.asList(
+                line(3L, JANUARY, OrderStatus.COMPLETED, 1L, 2, "999.99"),
+                line(3L, JANUARY, OrderStatus.COMPLETED, 2L, 1, "19.90"),
+                line(4L, MARCH, OrderStatus.CANCELLED, null, 0, null)));
+
+        ArchiveSegment reopened = ArchiveSegment.open(file);
+        assertEquals(3, reopened.getRows());
+        assertArrayEquals(new long[]{3L, 4L}, reopened.getOrderIds());
+
+        Map<Long, Long> totals = new HashMap<>();
+        reopened.sumValueByProduct(ArchiveSegment.statusMask(EnumSet.allOf(OrderStatus.class)),
+                Long.MIN_VALUE, Long.MAX_VALUE, totals);
+        assertEquals(199998L, totals.get(1L));
+        assertEquals(1990L, totals.get(2L));
+        assertEquals(2, totals.size());
+
+        totals.clear();
+        segment.sumValueByProduct(ArchiveSegment.statusMask(EnumSet.of(OrderStatus.COMPLETED)),
+                ArchiveSegment.toMicros(MARCH.minusDays(1)), Long.MAX_VALUE, totals);
+        assertTrue(totals.isEmpty());
+    }
+
+    @Test
+    public void testTruncatedSegmentIsRejected() throws IOException {
+        Path file = directory.resolve("segment-00000001.col");
+        ArchiveSegment.write(file, Collections.singletonList(
+                line(3L, JANUARY, OrderStatus.COMPLETED, 1L, 2, "999.99")));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertThrows(IOException.class, () -> ArchiveSegment.open(file));
+    }
+
+    @Test
+    public void testArchiveMovesOrdersToSegmentsAndSumsThem() throws IOException {
+        when(orderRepository.findIdsByStatusInAndOrderDateBefore(any(), any(), any()))
+                .thenReturn(Arrays.asList(3L, 4L), Collections.singletonList(5L));
+        List<OrderLineView> first = Arrays.asList(
+                line(3L, JANUARY, OrderStatus.COMPLETED, 1L, 2, "999.99"),
+                line(4L, JANUARY, OrderStatus.CANCELLED, 2L, 5, "19.90"));
+        List<OrderLineView> second = Collections.singletonList(
+                line(5L, MARCH, OrderStatus.COMPLETED, 2L, 1, "19.90"));
+        when(orderRepository.findLinesByOrderIds(Arrays.asList(3L, 4L))).thenReturn(first);
+        when(orderRepository.findLinesByOrderIds(Collections.singletonList(5L))).thenReturn(second);
+        when(orderRepository.deleteByIdsAndStatusIn(anyCollection(), anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+
+        assertEquals(3, orderArchive.archive());
+
+        verify(orderRepository).deleteItemsByOrderIds(Arrays.asList(3L, 4L));
+        verify(orderRepository).deleteItemsByOrderIds(Collections.singletonList(5L));
+        assertTrue(Files.exists(directory.resolve("segment-00000001.col")));
+        assertTrue(Files.exists(directory.resolve("segment-00000002.col")));
+        assertEquals(2L, orderArchive.getStats().get("segments"));
+
+        Map<String, BigDecimal> completed = orderArchive.sumOrderValueBySku(EnumSet.of(OrderStatus.COMPLETED),
+                null, null);
+        assertEquals(new BigDecimal("1999.98"), completed.get("SKU001"));
+        assertEquals(new BigDecimal("19.90"), completed.get("SKU002"));
+
+        Map<String, BigDecimal> all = orderArchive.sumOrderValueBySku(EnumSet.allOf(OrderStatus.class),
+                null, MARCH.minusDays(1));
+        assertEquals(new BigDecimal("99.50"), all.get("SKU002"));
+    }
+
+    @Test
+    public void testFailedDeleteDiscardsTheSegment() throws IOException {
+        when(orderRepository.findIdsByStatusInAndOrderDateBefore(any(), any(), any()))
+                .thenReturn(Arrays.asList(3L, 4L));
+        List<OrderLineView> lines = Arrays.asList(
+                line(3L, JANUARY, OrderStatus.COMPLETED, 1L, 2, "999.99"),
+                line(4L, JANUARY, OrderStatus.COMPLETED, 1L, 1, "999.99"));
+        when(orderRepository.findLinesByOrderIds(any())).thenReturn(lines);
+        when(orderRepository.deleteByIdsAndStatusIn(anyCollection(), anyCollection())).thenReturn(1);
+
+        assertEquals(0, orderArchive.archive());
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertTrue(orderArchive.sumOrderValueBySku(EnumSet.allOf(OrderStatus.class), null, null).isEmpty());
+    }
+
+    @Test
+    public void testPendingSegmentIsKeptOnlyIfItsOrdersWereDeleted() throws IOException {
+        ArchiveSegment.write(directory.resolve("segment-00000001.col.pending"), Collections.singletonList(
+                line(3L, JANUARY, OrderStatus.COMPLETED, 1L, 2, "999.99")));
+        ArchiveSegment.write(directory.resolve("segment-00000002.col.pending"), Collections.singletonList(
+                line(4L, JANUARY, OrderStatus.COMPLETED, 1L, 1, "999.99")));
+        when(orderRepository.countByIds(Collections.singletonList(3L))).thenReturn(0L);
+        when(orderRepository.countByIds(Collections.singletonList(4L))).thenReturn(1L);
+
+        OrderArchive reopened = new OrderArchive();
+        ReflectionTestUtils.setField(reopened, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(reopened, "productRepository", productRepository);
+        ReflectionTestUtils.setField(reopened, "enabled", true);
+        ReflectionTestUtils.setField(reopened, "dir", directory.toString());
+        reopened.open();
+
+        assertTrue(Files.exists(directory.resolve("segment-00000001.col")));
+        assertFalse(Files.exists(directory.resolve("segment-00000002.col.pending")));
+        assertFalse(Files.exists(directory.resolve("segment-00000002.col")));
+        assertEquals(1L, reopened.getStats().get("segments"));
+        assertEquals(new BigDecimal("1999.98"), reopened.sumOrderValueBySku(EnumSet.allOf(OrderStatus.class),
+                null, null).get("SKU001"));
+    }
+
+    private OrderLineView line(Long orderId, LocalDateTime orderDate, OrderStatus status, Long productId,
+            int quantity, String price) {
+        OrderLineView line = mock(OrderLineView.class);
+        when(line.getOrderId()).thenReturn(orderId);
+        when(line.getOrderDate()).thenReturn(orderDate);
+        when(line.getStatus()).thenReturn(status);
+        when(line.getItemId()).thenReturn(productId == null ? null : orderId * 10 + productId);
+        when(line.getProductId()).thenReturn(productId);
+        when(line.getQuantity()).thenReturn(quantity);
+        when(line.getPrice()).thenReturn(price == null ? null : new BigDecimal(price));
+        return line;
+    }
+}
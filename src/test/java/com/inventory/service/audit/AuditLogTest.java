@@ -0,0 +1,107 @@
+package com.inventory.service.audit;
+
+import com.inventory.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditLog auditLog(int capacity, AuditOverflowPolicy overflow) {
+        AuditLog auditLog = new AuditLog();
+        ReflectionTestUtils.setField(auditLog, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(auditLog, "enabled", true);
+        ReflectionTestUtils.setField(auditLog, "file", directory.resolve("audit.log").toString());
+        ReflectionTestUtils.setField(auditLog, "capacity", capacity);
+        ReflectionTestUtils.setField(auditLog, "overflow", overflow);
+        ReflectionTestUtils.setField(auditLog, "sampleRate", 2);
+        return auditLog;
+    }
+
+    @Test
+    public void testEventsAreWrittenInOrderOneLinePerEvent() throws Exception {
+        AuditLog auditLog = auditLog(4, AuditOverflowPolicy.BLOCK);
+        auditLog.start();
+        for (int i = 1; i <= 100; i++) {
+            auditLog.record(AuditEventType.ORDER_LINE, i, 7, 3, null, null);
+        }
+        auditLog.statusChangedAfterCommit(42, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        auditLog.stockRestored(7, 3);
+        auditLog.stop();
+
+        List<String> lines = Files.readAllLines(directory.resolve("audit.log"), StandardCharsets.UTF_8);
+        assertEquals(102, lines.size());
+        for (int i = 1; i <= 100; i++) {
+            assertTrue(lines.get(i - 1).endsWith("\tORDER_LINE\t" + i + "\t7\t3"), lines.get(i - 1));
+        }
+        assertTrue(lines.get(100).endsWith("\tORDER_STATUS_CHANGED\t42\tPENDING\tCANCELLED"));
+        assertTrue(lines.get(101).endsWith("\tSTOCK_RESTORED\t7\t3"));
+        assertEquals(0, auditLog.getDropped());
+    }
+
+    @Test
+    public void testEventsOfATransactionShareOneSynchronization() {
+        AuditLog auditLog = auditLog(8, AuditOverflowPolicy.DROP);
+        auditLog.allocate();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditLog.statusChangedAfterCommit(1, OrderStatus.PENDING, OrderStatus.CANCELLED);
+            auditLog.statusesChangedAfterCommit(Collections.singletonMap(2L, OrderStatus.PENDING),
+                    OrderStatus.COMPLETED);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            assertEquals(0, auditLog.getBacklog());
+
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            assertEquals(2, auditLog.getBacklog());
+            assertFalse(TransactionSynchronizationManager.hasResource(auditLog));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testSampleRateBelowOneIsRejected() {
+        AuditLog auditLog = auditLog(8, AuditOverflowPolicy.SAMPLE);
+        ReflectionTestUtils.setField(auditLog, "sampleRate", 0);
+        assertThrows(IllegalStateException.class, auditLog::start);
+    }
+
+    @Test
+    public void testFullBufferDropsEvents() {
+        AuditLog auditLog = auditLog(8, AuditOverflowPolicy.DROP);
+        auditLog.allocate();
+        for (int i = 0; i < 10; i++) {
+            auditLog.stockRestored(i, 1);
+        }
+        assertEquals(8, auditLog.getBacklog());
+        assertEquals(2, auditLog.getDropped());
+    }
+
+    @Test
+    public void testHalfFullBufferSamplesEvents() {
+        AuditLog auditLog = auditLog(8, AuditOverflowPolicy.SAMPLE);
+        auditLog.allocate();
+        for (int i = 0; i < 8; i++) {
+            auditLog.stockRestored(i, 1);
+        }
+        // 4 events fill half the buffer, then one in two is kept
+        assertEquals(6, auditLog.getBacklog());
+        assertEquals(2, auditLog.getSampledOut());
+        assertEquals(0, auditLog.getDropped());
+    }
+}
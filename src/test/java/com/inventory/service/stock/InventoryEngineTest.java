@@ -0,0 +1,170 @@
+package com.inventory.service.stock;
+
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.InventoryEngineCheckpoint;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.InventoryEngineCheckpointRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.OrderService;
+import com.inventory.service.ProductCache;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "inventory.engine.enabled=true",
+        "inventory.engine.journal-dir=target/engine-journal-test",
+        "inventory.engine.journal-force=false",
+        "inventory.engine.flush-interval-millis=600000" })
+public class InventoryEngineTest {
+
+    /**
+     * The schema is recreated for every run, so a journal left behind by an
+     * earlier run must not be replayed into it.
+     */
+    @BeforeAll
+    static void clearJournal() throws Exception {
+        Path directory = Paths.get("target/engine-journal-test");
+        if (Files.exists(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryEngineCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private StockRestorationService stockRestorationService;
+
+    @Test
+    public void testOrdersReserveInMemoryAndFlushCoalesced() throws Exception {
+        Product product = productRepository.save(new Product(null, "Engine", "ENGINE-HOT", BigDecimal.TEN, 100, null));
+
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    try {
+                        orderService.createOrder(order(product.getId(), 1));
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // sold out
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(100, sold.get());
+        assertEquals(0, inventoryEngine.getAvailable(product.getId()).getAsInt());
+        assertEquals(100, productRepository.findById(product.getId()).get().getStock());
+
+        inventoryEngine.flush();
+
+        assertEquals(0, productRepository.findById(product.getId()).get().getStock());
+        assertTrue(checkpointRepository.findById(InventoryEngineCheckpoint.SINGLETON_ID).get().getLastSequence() > 0);
+    }
+
+    @Test
+    public void testRolledBackReservationIsReleased() {
+        Product product = productRepository.save(new Product(null, "Engine", "ENGINE-ROLLBACK", BigDecimal.TEN, 5, null));
+        SortedMap<Long, Integer> quantities = new TreeMap<>(Collections.singletonMap(product.getId(), 3));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            inventoryEngine.reserve(quantities);
+            assertEquals(2, inventoryEngine.getAvailable(product.getId()).getAsInt());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(5, inventoryEngine.getAvailable(product.getId()).getAsInt());
+        inventoryEngine.flush();
+        assertEquals(5, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    @Test
+    public void testMultiProductReservationIsAllOrNothing() {
+        Product plenty = productRepository.save(new Product(null, "Plenty", "ENGINE-PLENTY", BigDecimal.ONE, 10, null));
+        Product scarce = productRepository.save(new Product(null, "Scarce", "ENGINE-SCARCE", BigDecimal.ONE, 1, null));
+
+        OrderDTO dto = new OrderDTO(Arrays.asList(
+                new OrderItemDTO(plenty.getId(), 4), new OrderItemDTO(scarce.getId(), 2)));
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(dto));
+        assertEquals(10, inventoryEngine.getAvailable(plenty.getId()).getAsInt());
+        assertEquals(1, inventoryEngine.getAvailable(scarce.getId()).getAsInt());
+    }
+
+    @Test
+    public void testOrdersReadProductsThroughTheCacheUntilFlushed() {
+        Product product = productRepository.save(new Product(null, "Engine", "ENGINE-CACHED", BigDecimal.ONE, 10, null));
+        long loadsBefore = productCache.getStats().getLoads();
+
+        orderService.createOrder(order(product.getId(), 1));
+        orderService.createOrder(order(product.getId(), 1));
+        assertEquals(loadsBefore + 1, productCache.getStats().getLoads());
+
+        inventoryEngine.flush();
+        assertEquals(8, productCache.getById(product.getId()).get().getStock());
+        assertEquals(loadsBefore + 2, productCache.getStats().getLoads());
+    }
+
+    @Test
+    public void testCancelledStockIsWrittenToTheTableBeforeTheCounters() {
+        Product product = productRepository.save(new Product(null, "Engine", "ENGINE-CANCEL", BigDecimal.ONE, 10, null));
+        Order order = orderService.createOrder(order(product.getId(), 3));
+        assertEquals(7, inventoryEngine.getAvailable(product.getId()).getAsInt());
+
+        orderService.updateStatus(order.getId(), OrderStatus.CANCELLED);
+        stockRestorationService.flush();
+
+        assertEquals(10, inventoryEngine.getAvailable(product.getId()).getAsInt());
+        // The restoration is in the table, the order's decrement still only in the journal
+        assertEquals(13, productRepository.findById(product.getId()).get().getStock());
+        inventoryEngine.flush();
+        assertEquals(10, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    private OrderDTO order(Long productId, int quantity) {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(productId, quantity)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.math.BigDecimal;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LowStockAlertServiceTest {
+
+    @Test
+    public void testOnlyThresholdsBetweenOldAndNewStockAreNotified() {
+        LowStockAlertService service = new LowStockAlertService();
+        for (int threshold : new int[] { 5, 10, 15, 20 }) {
+            service.subscribe(threshold);
+        }
+        RecordingEmitter ten = new RecordingEmitter();
+        RecordingEmitter fifteen = new RecordingEmitter();
+        register(service, 10, ten);
+        register(service, 15, fifteen);
+
+        Product product = new Product(1L, "Alert", "ALERT-1", BigDecimal.ONE, 9, 0);
+        service.notifyCrossings(product, 15, 9);
+        assertEquals(1, ten.sent);
+        assertEquals(1, fifteen.sent);
+
+        service.notifyCrossings(product, 9, 12);
+        assertEquals(2, ten.sent);
+        assertEquals(1, fifteen.sent);
+
+        service.notifyCrossings(product, 12, 11);
+        assertEquals(2, ten.sent);
+        assertEquals(1, fifteen.sent);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void register(LowStockAlertService service, int threshold, SseEmitter emitter) {
+        NavigableMap<Integer, Set<SseEmitter>> subscribers = (NavigableMap<Integer, Set<SseEmitter>>)
+                ReflectionTestUtils.getField(service, "subscribers");
+        subscribers.get(threshold).clear();
+        subscribers.get(threshold).add(emitter);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        int sent;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent++;
+        }
+    }
+}
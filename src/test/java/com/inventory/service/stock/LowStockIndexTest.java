@@ -0,0 +1,69 @@
+package com.inventory.service.stock;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LowStockIndexTest {
+
+    @Test
+    public void testRangeScanReturnsIdsBelowThresholdInIdOrder() {
+        LowStockIndex index = new LowStockIndex();
+        index.put(5L, 3);
+        index.put(1L, 8);
+        index.put(3L, 0);
+        index.put(2L, 20);
+        index.put(4L, 10);
+
+        assertEquals(Arrays.asList(1L, 3L, 5L), index.findIdsBelow(10, 0L, 10));
+        assertEquals(Arrays.asList(1L, 3L), index.findIdsBelow(10, 0L, 2));
+        assertEquals(Collections.singletonList(5L), index.findIdsBelow(10, 3L, 10));
+        assertTrue(index.findIdsBelow(0, 0L, 10).isEmpty());
+    }
+
+    @Test
+    public void testPagesMatchWhicheverWalkFinishesFirst() {
+        LowStockIndex index = new LowStockIndex();
+        for (long id = 1; id <= 1000; id++) {
+            // Most products are low; a few above the threshold are scattered in between
+            index.put(id, id % 100 == 0 ? 50 : id % 7);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long afterId = 0;
+        List<Long> page;
+        while (!(page = index.findIdsBelow(10, afterId, 25)).isEmpty()) {
+            assertTrue(page.size() <= 25);
+            ids.addAll(page);
+            afterId = page.get(page.size() - 1);
+        }
+        assertEquals(990, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+        assertFalse(ids.contains(100L));
+
+        LowStockIndex sparse = new LowStockIndex();
+        for (long id = 1; id <= 1000; id++) {
+            sparse.put(id, id == 700 || id == 100 ? 1 : 50);
+        }
+        assertEquals(Arrays.asList(100L, 700L), sparse.findIdsBelow(10, 0L, 10));
+        assertEquals(Collections.singletonList(700L), sparse.findIdsBelow(10, 100L, 10));
+        assertEquals(Collections.singletonList(100L), sparse.findIdsBelow(10, 0L, 1));
+    }
+
+    @Test
+    public void testAdjustMovesProductAcrossThreshold() {
+        LowStockIndex index = new LowStockIndex();
+        index.put(1L, 12);
+
+        index.adjust(1L, -5);
+        assertEquals(Collections.singletonList(1L), index.findIdsBelow(10, 0L, 10));
+
+        index.adjust(1L, 5);
+        assertTrue(index.findIdsBelow(10, 0L, 10).isEmpty());
+
+        index.adjust(99L, -1);
+        assertTrue(index.findIdsBelow(10, 0L, 10).isEmpty());
+    }
+}
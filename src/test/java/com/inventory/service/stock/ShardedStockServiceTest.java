@@ -0,0 +1,165 @@
+package com.inventory.service.stock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Product;
+import com.inventory.entity.ProductStockShard;
+import com.inventory.exception.ConcurrentStockUpdateException;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ProductStockShardRepository;
+import com.inventory.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ShardedStockServiceTest {
+
+    @Autowired
+    private ShardedStockService shardedStockService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testShardedStockIsReportedAsProductStock() throws Exception {
+        Product product = createProduct("SHARD-READ", 100);
+
+        shardedStockService.enableSharding(product.getId(), 4);
+
+        Product reloaded = reload(product.getId());
+        assertEquals(0, reloaded.getStock());
+        assertEquals(100, reloaded.getAvailableStock());
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(reloaded));
+        assertEquals(100, json.get("stock").asInt());
+        assertTrue(shardedStockService.isSharded(product.getId()));
+    }
+
+    @Test
+    public void testConcurrentOrdersOnShardedProduct() throws Exception {
+        Product product = createProduct("SHARD-HOT", 60);
+        shardedStockService.enableSharding(product.getId(), 4);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    // Retry like a client would on a 409 response
+                    while (true) {
+                        try {
+                            orderService.createOrder(order(product.getId(), 1));
+                            sold.incrementAndGet();
+                            break;
+                        } catch (InsufficientStockException e) {
+                            break;
+                        } catch (ConcurrentStockUpdateException | PessimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(60, sold.get());
+        assertEquals(0, reload(product.getId()).getAvailableStock());
+    }
+
+    @Test
+    public void testSpillOverAcrossShards() {
+        Product product = createProduct("SHARD-SPILL", 10);
+        shardedStockService.enableSharding(product.getId(), 4);
+
+        orderService.createOrder(order(product.getId(), 9));
+        assertEquals(1, reload(product.getId()).getAvailableStock());
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(order(product.getId(), 2)));
+        assertEquals(1, reload(product.getId()).getAvailableStock());
+    }
+
+    @Test
+    public void testRebalanceEvensOutShards() {
+        Product product = createProduct("SHARD-REBALANCE", 40);
+        shardedStockService.enableSharding(product.getId(), 4);
+        orderService.createOrder(order(product.getId(), 10));
+
+        shardedStockService.rebalanceAll();
+
+        IntSummaryStatistics stats = shardRepository.findAll().stream()
+                .filter(s -> s.getProductId().equals(product.getId()))
+                .mapToInt(ProductStockShard::getStock)
+                .summaryStatistics();
+        assertEquals(30, stats.getSum());
+        assertTrue(stats.getMax() - stats.getMin() <= 1);
+    }
+
+    @Test
+    public void testDisableFoldsShardsBackIntoProduct() {
+        Product product = createProduct("SHARD-DISABLE", 25);
+        shardedStockService.enableSharding(product.getId(), 3);
+        orderService.createOrder(order(product.getId(), 5));
+
+        shardedStockService.disableSharding(product.getId());
+
+        Product reloaded = reload(product.getId());
+        assertEquals(20, reloaded.getStock());
+        assertEquals(20, reloaded.getAvailableStock());
+        assertFalse(shardedStockService.isSharded(product.getId()));
+        assertThrows(IllegalArgumentException.class, () -> shardedStockService.disableSharding(product.getId()));
+    }
+
+    @Test
+    public void testLoadedProductDoesNotSumShards() {
+        Product product = createProduct("SHARD-LAZY", 12);
+        shardedStockService.enableSharding(product.getId(), 3);
+
+        Product loaded = productRepository.findById(product.getId()).get();
+        assertNull(loaded.getShardedStock());
+        assertEquals(Collections.singleton(product.getId()),
+                shardedStockService.findSharded(Arrays.asList(product.getId(), -1L)));
+        assertEquals(12, shardedStockService.getShardedStocks().get(product.getId()));
+    }
+
+    /**
+     * Reads a product the way reporting code does, with its shards summed.
+     */
+    private Product reload(Long productId) {
+        Product product = productRepository.findById(productId).get();
+        shardedStockService.fillShardedStock(Collections.singletonList(product));
+        return product;
+    }
+
+    private Product createProduct(String sku, int stock) {
+        return productRepository.save(new Product(null, sku, sku, BigDecimal.TEN, stock, null));
+    }
+
+    private OrderDTO order(Long productId, int quantity) {
+        return new OrderDTO(Collections.singletonList(new OrderItemDTO(productId, quantity)));
+    }
+}
@@ -0,0 +1,110 @@
+package com.inventory.service.stock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testReplaySumsRecordsAfterCheckpoint() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            journal.append(Collections.singletonMap(1L, -2));
+            long rotated = journal.rotate();
+            journal.append(deltas(1L, -3, 2L, -1));
+            journal.append(Collections.singletonMap(2L, 4));
+
+            assertEquals(1, rotated);
+            Map<Long, Long> all = journal.replay(0);
+            assertEquals(-5L, all.get(1L));
+            assertEquals(3L, all.get(2L));
+
+            Map<Long, Long> afterFirst = journal.replay(1);
+            assertEquals(-3L, afterFirst.get(1L));
+        }
+    }
+
+    @Test
+    void testTornRecordIsIgnoredAndSequenceSurvivesReopen() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            journal.append(Collections.singletonMap(7L, -1));
+            journal.append(Collections.singletonMap(7L, -1));
+        }
+        Path current = directory.resolve("journal-current.log");
+        try (RandomAccessFile file = new RandomAccessFile(current.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        try (StockJournal reopened = new StockJournal(directory, false)) {
+            Map<Long, Long> replayed = reopened.replay(0);
+            assertEquals(-1L, replayed.get(7L));
+            assertEquals(1, reopened.getLastSequence());
+
+            reopened.reset();
+            assertTrue(reopened.replay(0).isEmpty());
+            assertEquals(2, reopened.append(Collections.singletonMap(7L, 1)));
+        }
+    }
+
+    @Test
+    void testDeleteRotatedUpToKeepsNewerFiles() throws Exception {
+        try (StockJournal journal = new StockJournal(directory, false)) {
+            journal.append(Collections.singletonMap(1L, -1));
+            long first = journal.rotate();
+            journal.append(Collections.singletonMap(1L, -1));
+            journal.rotate();
+            assertEquals(first, journal.rotate() - 1);
+
+            journal.deleteRotatedUpTo(first);
+
+            assertFalse(Files.exists(directory.resolve("journal-1.log")));
+            assertTrue(Files.exists(directory.resolve("journal-2.log")));
+            assertEquals(-1L, journal.replay(0).get(1L));
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsShareForcesAndRotation() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (StockJournal journal = new StockJournal(directory, true)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            journal.sync(journal.append(Collections.singletonMap(1L, -1)));
+                        }
+                    }));
+                }
+                for (int i = 0; i < 5; i++) {
+                    journal.rotate();
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(threads * perThread, journal.getLastSequence());
+            assertEquals(-(long) threads * perThread, journal.replay(0).get(1L));
+        }
+    }
+
+    private static Map<Long, Integer> deltas(Long id1, int d1, Long id2, int d2) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        deltas.put(id1, d1);
+        deltas.put(id2, d2);
+        return deltas;
+    }
+}
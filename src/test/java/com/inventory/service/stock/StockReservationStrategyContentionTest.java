@@ -0,0 +1,114 @@
+package com.inventory.service.stock;
+
+import com.inventory.entity.Product;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.ResourceNotFoundException;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the stock reservation strategies on a single hot SKU.
+ *
+ * Every thread buys one unit per transaction; the test reports throughput
+ * and abort rate per mode and checks that no unit is lost or oversold.
+ */
+@Slf4j
+@SpringBootTest
+public class StockReservationStrategyContentionTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 40;
+    private static final int INITIAL_STOCK = 1000;
+
+    @Autowired
+    private List<StockReservationStrategy> strategies;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest
+    @EnumSource(StockReservationMode.class)
+    public void testHotSkuContention(StockReservationMode mode) throws Exception {
+        StockReservationStrategy strategy = strategyFor(mode);
+        Product product = productRepository.save(
+                new Product(null, "Hot " + mode, "HOT-" + mode, BigDecimal.TEN, INITIAL_STOCK, null));
+        SortedMap<Long, Integer> oneUnit = new TreeMap<>(Collections.singletonMap(product.getId(), 1));
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger aborted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> strategy.reserve(oneUnit));
+                        sold.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        aborted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+
+        int attempts = THREADS * ORDERS_PER_THREAD;
+        log.info("{} throughput={} orders/s abort-rate={}% ({}/{})", mode,
+                String.format("%.1f", sold.get() / seconds), String.format("%.1f", 100.0 * aborted.get() / attempts),
+                aborted.get(), attempts);
+
+        int remaining = productRepository.findById(product.getId()).get().getStock();
+        assertEquals(INITIAL_STOCK, remaining + sold.get());
+        assertTrue(sold.get() > 0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(StockReservationMode.class)
+    public void testRejectsInsufficientStockAndUnknownProducts(StockReservationMode mode) {
+        StockReservationStrategy strategy = strategyFor(mode);
+        Product product = productRepository.save(
+                new Product(null, "Scarce " + mode, "SCARCE-" + mode, BigDecimal.ONE, 2, null));
+
+        SortedMap<Long, Integer> tooMany = new TreeMap<>(Collections.singletonMap(product.getId(), 3));
+        assertThrows(InsufficientStockException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> strategy.reserve(tooMany)));
+
+        SortedMap<Long, Integer> unknown = new TreeMap<>(Collections.singletonMap(-1L, 1));
+        assertThrows(ResourceNotFoundException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> strategy.reserve(unknown)));
+
+        SortedMap<Long, Integer> exact = new TreeMap<>(Collections.singletonMap(product.getId(), 2));
+        Map<Long, Product> reserved = transactionTemplate.execute(status -> strategy.reserve(exact));
+        assertEquals(0, reserved.get(product.getId()).getStock());
+        assertEquals(0, productRepository.findById(product.getId()).get().getStock());
+    }
+
+    private StockReservationStrategy strategyFor(StockReservationMode mode) {
+        return strategies.stream()
+                .filter(s -> s.getMode() == mode)
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+}
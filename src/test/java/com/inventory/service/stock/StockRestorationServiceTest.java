@@ -0,0 +1,103 @@
+package com.inventory.service.stock;
+
+import com.inventory.dto.OrderDTO;
+import com.inventory.dto.OrderItemDTO;
+import com.inventory.entity.Order;
+import com.inventory.entity.OrderStatus;
+import com.inventory.entity.Product;
+import com.inventory.repository.PendingStockRestorationRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventory.stock.restoration.flush-interval-millis=3600000")
+public class StockRestorationServiceTest {
+
+    @Autowired
+    private StockRestorationService stockRestorationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PendingStockRestorationRepository restorationRepository;
+
+    @Test
+    public void testCancellationsAreCoalescedIntoOneUpdatePerProduct() {
+        stockRestorationService.flush();
+        Product first = productRepository.save(new Product(null, "Restore A", "RESTORE-001", new BigDecimal("1.00"),
+                100, null));
+        Product second = productRepository.save(new Product(null, "Restore B", "RESTORE-002", new BigDecimal("1.00"),
+                50, null));
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            orders.add(orderService.createOrder(new OrderDTO(Arrays.asList(new OrderItemDTO(first.getId(), 5),
+                    new OrderItemDTO(second.getId(), 2)))));
+        }
+        for (int i = 0; i < 3; i++) {
+            orderService.updateStatus(orders.get(i).getId(), OrderStatus.CANCELLED);
+        }
+
+        assertEquals(80, productRepository.findById(first.getId()).get().getStock());
+        assertEquals(6, restorationRepository.count());
+
+        Map<Long, Integer> applied = stockRestorationService.flush();
+
+        assertEquals(15, applied.get(first.getId()));
+        assertEquals(6, applied.get(second.getId()));
+        assertEquals(95, productRepository.findById(first.getId()).get().getStock());
+        assertEquals(48, productRepository.findById(second.getId()).get().getStock());
+        assertEquals(0, restorationRepository.count());
+        assertTrue(stockRestorationService.flush().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentCancellationsRestoreStockOnce() throws Exception {
+        stockRestorationService.flush();
+        Product product = productRepository.save(new Product(null, "Restore C", "RESTORE-003", new BigDecimal("1.00"),
+                10, null));
+        Order order = orderService.createOrder(new OrderDTO(Collections.singletonList(
+                new OrderItemDTO(product.getId(), 4))));
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger cancelled = new AtomicInteger();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.updateStatus(order.getId(), OrderStatus.CANCELLED);
+                        cancelled.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // already cancelled by another thread
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, cancelled.get());
+        assertEquals(1, restorationRepository.count());
+        assertEquals(4, stockRestorationService.flush().get(product.getId()));
+        assertEquals(10, productRepository.findById(product.getId()).get().getStock());
+    }
+}